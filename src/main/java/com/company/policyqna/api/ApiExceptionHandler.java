@@ -0,0 +1,36 @@
+package com.company.policyqna.api;
+
+import com.company.policyqna.rag.GenerationRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * API 공통 예외 처리
+ */
+@RestControllerAdvice
+@Slf4j
+public class ApiExceptionHandler {
+
+    /**
+     * LLM 생성 대기열 초과 -> 429, 대기 시간/마감시간 초과 -> 503 (Retry-After 포함)
+     */
+    @ExceptionHandler(GenerationRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleGenerationRejected(GenerationRejectedException e) {
+        HttpStatus status = e.getReason() == GenerationRejectedException.Reason.QUEUE_FULL
+            ? HttpStatus.TOO_MANY_REQUESTS
+            : HttpStatus.SERVICE_UNAVAILABLE;
+
+        return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of(
+                "error", e.getReason().name(),
+                "message", e.getMessage()
+            ));
+    }
+}
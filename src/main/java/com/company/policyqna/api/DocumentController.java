@@ -2,6 +2,7 @@ package com.company.policyqna.api;
 
 import com.company.policyqna.document.DocumentRepository;
 import com.company.policyqna.document.DocumentService;
+import com.company.policyqna.document.OrphanVectorPurgeJob;
 import com.company.policyqna.domain.PolicyDocument;
 import com.company.policyqna.domain.PolicyDocument.DocumentType;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ public class DocumentController {
 
     private final DocumentService documentService;
     private final DocumentRepository documentRepository;
+    private final OrphanVectorPurgeJob orphanVectorPurgeJob;
 
     /**
      * 문서 업로드 및 인덱싱
@@ -112,6 +114,14 @@ public class DocumentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * 고아 벡터 정리 (정기 작업을 기다리지 않고 바로 실행)
+     */
+    @PostMapping("/maintenance/purge-orphans")
+    public ResponseEntity<OrphanVectorPurgeJob.PurgeReport> purgeOrphanVectors() {
+        return ResponseEntity.ok(orphanVectorPurgeJob.purge());
+    }
+
     /**
      * 인덱싱 통계
      */
@@ -121,17 +121,15 @@ public class OntologyController {
      */
     @PostMapping("/rules")
     public ResponseEntity<OntologyRule> createRule(@Valid @RequestBody RuleRequest request) {
-        OntologyRule rule = OntologyRule.builder()
-            .name(request.name())
-            .ruleType(OntologyRule.RuleType.valueOf(request.ruleType()))
-            .condition(request.condition())
-            .consequence(request.consequence())
-            .description(request.description())
-            .priority(request.priority() != null ? request.priority() : 0)
-            .isActive(true)
-            .build();
-
-        return ResponseEntity.ok(ruleRepository.save(rule));
+        OntologyRule rule = ontologyService.createRule(
+            request.name(),
+            OntologyRule.RuleType.valueOf(request.ruleType()),
+            request.condition(),
+            request.consequence(),
+            request.description(),
+            request.priority()
+        );
+        return ResponseEntity.ok(rule);
     }
 
     /**
@@ -158,11 +156,8 @@ public class OntologyController {
      */
     @PatchMapping("/rules/{id}/toggle")
     public ResponseEntity<OntologyRule> toggleRule(@PathVariable Long id) {
-        return ruleRepository.findById(id)
-            .map(rule -> {
-                rule.setIsActive(!rule.getIsActive());
-                return ResponseEntity.ok(ruleRepository.save(rule));
-            })
+        return ontologyService.toggleRule(id)
+            .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
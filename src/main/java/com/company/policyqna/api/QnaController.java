@@ -1,13 +1,38 @@
 package com.company.policyqna.api;
 
+import com.company.policyqna.rag.BatchQnaService;
+import com.company.policyqna.rag.BatchQnaService.BatchItem;
+import com.company.policyqna.rag.BatchQnaService.BatchQuestion;
 import com.company.policyqna.rag.RagPipelineService;
 import com.company.policyqna.rag.RagPipelineService.QnaResponse;
+import com.company.policyqna.rag.SemanticAnswerCache;
+import com.company.policyqna.vector.EmbeddingCache;
+import com.company.policyqna.vector.QuantizedPrefilter;
+import com.company.policyqna.vector.RetrievalCache;
+import com.company.policyqna.vector.SearchFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Q&A API 컨트롤러
@@ -19,6 +44,17 @@ import org.springframework.web.bind.annotation.*;
 public class QnaController {
 
     private final RagPipelineService ragPipelineService;
+    private final SemanticAnswerCache answerCache;
+    private final BatchQnaService batchQnaService;
+    private final EmbeddingCache embeddingCache;
+    private final RetrievalCache retrievalCache;
+    private final ObjectMapper objectMapper;
+    // 양자화 1차 검색이 활성 백엔드일 때만 존재 - 없으면 요청의 oversample 은 무시
+    private final ObjectProvider<QuantizedPrefilter> quantizedPrefilter;
+
+    // 일괄 처리 응답 최대 시간 (질문 수 x 생성 시간이라 SSE 용 전역 타임아웃보다 길게)
+    @Value("${rag.batch.request-timeout-ms:3600000}")
+    private long batchRequestTimeoutMs;
 
     /**
      * 질문 응답 API
@@ -27,18 +63,94 @@ public class QnaController {
     public ResponseEntity<QnaResponse> ask(@Valid @RequestBody QuestionRequest request) {
         log.info("Received question: {}", request.question());
 
-        QnaResponse response = ragPipelineService.processQuestion(request.question());
+        QnaResponse response = ragPipelineService.processQuestion(request.question(), filterOf(request));
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * 스트리밍 응답 (SSE) - 추후 구현
+     * 스트리밍 응답 (SSE)
+     * - sources: 검색된 출처 목록
+     * - token: LLM 생성 토큰
+     * - done: 관련 용어, 검색 점수를 포함한 최종 응답
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> askStream(@Valid @RequestBody QuestionRequest request) {
+        log.info("Received streaming question: {}", request.question());
+
+        return ragPipelineService.streamQuestion(request.question(), filterOf(request))
+            .map(event -> ServerSentEvent.builder(event.getData())
+                .event(event.getType())
+                .build());
+    }
+
+    /**
+     * 일괄 질문 응답 API (NDJSON)
+     * - 검색은 검색 범위별로 묶어 수행 (중복 검색어 공유), 검색이 끝난 범위부터 답변 생성
+     * - 완료된 항목부터 한 줄씩 반환 (index 로 요청 순서 확인)
+     * - 전역 비동기 타임아웃(spring.mvc.async.request-timeout) 대신 rag.batch.request-timeout-ms 적용
+     */
+    @PostMapping(value = "/ask/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter askBatch(@Valid @RequestBody BatchQuestionRequest request) {
+        log.info("Received batch of {} questions", request.questions().size());
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchRequestTimeoutMs);
+        Disposable subscription = batchQnaService.processBatch(request.questions().stream()
+                .map(question -> new BatchQuestion(question.question(), filterOf(question)))
+                .toList())
+            .subscribe(
+                item -> sendLine(emitter, item),
+                emitter::completeWithError,
+                emitter::complete);
+
+        emitter.onTimeout(() -> {
+            log.warn("Batch request timed out after {}ms, cancelling remaining questions", batchRequestTimeoutMs);
+            subscription.dispose();
+        });
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+
+    /**
+     * NDJSON 한 줄 전송 (클라이언트 연결이 끊기면 예외로 남은 처리 취소)
+     */
+    private void sendLine(ResponseBodyEmitter emitter, BatchItem item) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(item) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 답변 캐시 통계
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(answerCache.getStats());
+    }
+
+    /**
+     * 임베딩 캐시 통계
+     */
+    @GetMapping("/cache/embedding/stats")
+    public ResponseEntity<Map<String, Object>> getEmbeddingCacheStats() {
+        return ResponseEntity.ok(embeddingCache.getStats());
+    }
+
+    /**
+     * 검색 결과 캐시 통계
+     */
+    @GetMapping("/cache/retrieval/stats")
+    public ResponseEntity<Map<String, Object>> getRetrievalCacheStats() {
+        return ResponseEntity.ok(retrievalCache.getStats());
+    }
+
+    /**
+     * 요청 필터 - oversample 은 양자화 백엔드가 쓸 때만 유지 (캐시 키가 쓰이지 않는 옵션으로 갈라지지 않도록)
      */
-    @PostMapping("/ask/stream")
-    public ResponseEntity<Void> askStream(@Valid @RequestBody QuestionRequest request) {
-        // TODO: Server-Sent Events 구현
-        return ResponseEntity.status(501).build();
+    private SearchFilter filterOf(QuestionRequest request) {
+        return request.filter(quantizedPrefilter.getIfAvailable() != null);
     }
 
     public record QuestionRequest(
@@ -47,6 +159,20 @@ public class QnaController {
 
         String department,  // 특정 부서 문서로 제한 (선택)
 
-        String documentType  // 특정 문서 유형으로 제한 (선택)
+        String documentType,  // 특정 문서 유형으로 제한 (선택)
+
+        @Min(value = 1, message = "oversample 은 1 이상이어야 합니다")
+        @Max(value = 50, message = "oversample 은 50 이하여야 합니다")
+        Integer oversample  // 양자화 검색 후보 배수 (선택, 클수록 정확하고 느림)
+    ) {
+        SearchFilter filter(boolean oversampleSupported) {
+            return SearchFilter.of(department, documentType, oversampleSupported ? oversample : null);
+        }
+    }
+
+    public record BatchQuestionRequest(
+        @NotEmpty(message = "질문 목록이 비어 있습니다")
+        @Size(max = 1000, message = "한 번에 최대 1000개까지 요청할 수 있습니다")
+        List<@Valid QuestionRequest> questions
     ) {}
 }
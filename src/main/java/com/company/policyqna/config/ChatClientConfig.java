@@ -0,0 +1,18 @@
+package com.company.policyqna.config;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ChatClient 설정
+ * - 요청마다 빌더로 새로 만들지 않고 하나를 공유 (ChatClient 는 스레드 안전)
+ */
+@Configuration
+public class ChatClientConfig {
+
+    @Bean
+    public ChatClient chatClient(ChatClient.Builder chatClientBuilder) {
+        return chatClientBuilder.build();
+    }
+}
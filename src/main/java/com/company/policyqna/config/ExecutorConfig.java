@@ -0,0 +1,99 @@
+package com.company.policyqna.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 실행기 설정
+ * - 검색 팬아웃, 파이프라인 단계, 일괄 인덱싱 등 I/O 대기 위주 작업용 스레드 풀
+ * - 가상 스레드를 지원하는 JVM(21+)에서는 가상 스레드 사용
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfig {
+
+    /**
+     * 검색(임베딩/pgvector 조회) 팬아웃용 실행기
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService retrievalExecutor(
+            @Value("${rag.search.parallelism:8}") int parallelism,
+            @Value("${rag.search.queue-capacity:256}") int queueCapacity) {
+
+        return new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            threadFactory("retrieval-"),
+            // 대기열이 가득 차면 거부 - 호출 스레드에서 실행하면 마감시간을 지킬 수 없음 (호출 측에서 시간 초과와 같이 처리)
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * RAG 파이프라인 단계(리다이렉트 확인, 쿼리 확장, 검색, 용어 조회) 실행기
+     * - 단계가 검색 팬아웃을 기다리므로 retrievalExecutor 와 분리 (기아 상태 방지)
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService pipelineExecutor(
+            @Value("${rag.pipeline.parallelism:16}") int parallelism,
+            @Value("${rag.pipeline.queue-capacity:256}") int queueCapacity) {
+
+        return new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            threadFactory("pipeline-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * 문서 일괄 인덱싱(배치 임베딩 + 벡터 기록) 실행기
+     * - 스레드 수가 Ollama 로 동시에 보내는 임베딩 요청 수 상한
+     * - 제출은 BulkVectorIndexer 의 공유 슬롯으로 제한하므로 대기열이 차면 거부
+     *   (호출 스레드에서 실행하면 업로드 스레드가 그대로 임베딩을 보내 상한을 넘음)
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService indexingExecutor(
+            @Value("${rag.indexing.parallelism:2}") int parallelism,
+            @Value("${rag.indexing.queue-capacity:8}") int queueCapacity) {
+
+        return new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            threadFactory("indexing-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * 가상 스레드 팩토리 (Java 21+), 미지원 시 데몬 플랫폼 스레드
+     */
+    static ThreadFactory threadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            log.info("Using virtual threads for {}", prefix);
+            return factory;
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
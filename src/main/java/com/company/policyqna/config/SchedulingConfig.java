@@ -0,0 +1,12 @@
+package com.company.policyqna.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 정기 작업 설정 (고아 벡터 정리 등)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
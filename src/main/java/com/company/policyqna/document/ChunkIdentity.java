@@ -0,0 +1,63 @@
+package com.company.policyqna.document;
+
+import com.company.policyqna.domain.DocumentChunk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 청크 식별자 (본문 해시 기반)
+ * - 키 = 본문 SHA-256 + 문서 안에서 같은 본문이 나온 순번 (반복되는 상용 문구 구분)
+ * - 벡터 ID = UUID.nameUUIDFromBytes(문서ID:키) 라서 같은 본문은 재인덱싱해도 같은 ID
+ * - 재인덱싱 시 이전/새 청크를 키로 비교해 바뀐 청크만 임베딩
+ */
+final class ChunkIdentity {
+
+    private ChunkIdentity() {
+    }
+
+    /**
+     * 본문 해시와 결정적 벡터 ID 지정, 청크별 키 반환 (청크 순서대로)
+     */
+    static List<String> assign(Long documentId, List<DocumentChunk> chunks) {
+        List<String> keys = keys(chunks);
+        for (int i = 0; i < chunks.size(); i++) {
+            DocumentChunk chunk = chunks.get(i);
+            chunk.setContentHash(contentHash(chunk.getContent()));
+            chunk.setVectorId(vectorId(documentId, keys.get(i)));
+        }
+        return keys;
+    }
+
+    /**
+     * 청크별 키 - 해시가 없는 예전 청크는 본문으로 계산
+     */
+    static List<String> keys(List<DocumentChunk> chunks) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        return chunks.stream()
+            .map(chunk -> {
+                String hash = chunk.getContentHash() != null ? chunk.getContentHash() : contentHash(chunk.getContent());
+                return hash + "#" + occurrences.merge(hash, 1, Integer::sum);
+            })
+            .toList();
+    }
+
+    static String vectorId(Long documentId, String key) {
+        return UUID.nameUUIDFromBytes((documentId + ":" + key).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
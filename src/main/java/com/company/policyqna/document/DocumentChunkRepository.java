@@ -22,6 +22,20 @@ public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, Lo
     @Query("DELETE FROM DocumentChunk c WHERE c.document.id = :documentId")
     void deleteByDocumentId(Long documentId);
 
+    // [청크 ID, 벡터 ID] - 고아 벡터 정리용
+    @Query("SELECT c.id, c.vectorId FROM DocumentChunk c")
+    List<Object[]> findAllVectorIds();
+
+    @Modifying
+    @Query("UPDATE DocumentChunk c SET c.vectorId = :vectorId WHERE c.id = :id AND c.vectorId IS NULL")
+    int assignVectorId(Long id, String vectorId);
+
+    @Query("SELECT c FROM DocumentChunk c JOIN FETCH c.document")
+    List<DocumentChunk> findAllWithDocument();
+
+    @Query("SELECT c FROM DocumentChunk c JOIN FETCH c.document WHERE c.document.id = :documentId")
+    List<DocumentChunk> findWithDocumentByDocumentId(Long documentId);
+
     @Query("SELECT c FROM DocumentChunk c WHERE c.content LIKE %:keyword%")
     List<DocumentChunk> searchByKeyword(String keyword);
 
@@ -0,0 +1,15 @@
+package com.company.policyqna.document;
+
+/**
+ * 문서 인덱스 변경 이벤트
+ * - 업로드, 재인덱싱, 삭제 시 발행
+ * - 검색/답변 캐시 무효화 등에 사용
+ */
+public record DocumentIndexChangedEvent(Long documentId, ChangeType changeType) {
+
+    public enum ChangeType {
+        UPLOADED,
+        REINDEXED,
+        DELETED
+    }
+}
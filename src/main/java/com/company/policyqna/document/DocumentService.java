@@ -3,12 +3,17 @@ package com.company.policyqna.document;
 import com.company.policyqna.domain.DocumentChunk;
 import com.company.policyqna.domain.PolicyDocument;
 import com.company.policyqna.domain.PolicyDocument.DocumentType;
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.vector.BulkVectorIndexer;
+import com.company.policyqna.vector.CorpusVersion;
 import com.company.policyqna.vector.VectorStoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -16,9 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * 문서 관리 서비스
@@ -32,14 +35,20 @@ public class DocumentService {
     private final DocumentChunkRepository chunkRepository;
     private final DocumentParser documentParser;
     private final VectorStoreService vectorStoreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
+    private final CorpusVersion corpusVersion;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${document.upload-path:./uploads}")
     private String uploadPath;
 
     /**
      * 문서 업로드 및 인덱싱
+     * - 문서/청크 저장과 인덱싱 완료 표시는 각각 짧은 트랜잭션으로 커밋
+     * - 임베딩/벡터 기록은 그 사이 트랜잭션 밖에서 실행 (임베딩 동안 DB 커넥션/잠금을 잡지 않음)
+     * - 인덱싱이 실패하면 문서는 indexed=false 로 남고 재인덱싱으로 복구
      */
-    @Transactional
     public PolicyDocument uploadAndIndex(
             MultipartFile file,
             String title,
@@ -52,66 +61,185 @@ public class DocumentService {
         Path savedPath = saveFile(file);
         log.info("File saved: {}", savedPath);
 
-        // 2. 문서 엔티티 생성
-        PolicyDocument document = PolicyDocument.builder()
-            .title(title)
-            .documentCode(documentCode)
-            .documentType(documentType)
-            .department(department)
-            .filePath(savedPath.toString())
-            .fileName(file.getOriginalFilename())
-            .mimeType(file.getContentType())
-            .metadata(metadata)
-            .build();
-
-        document = documentRepository.save(document);
-
-        // 3. 문서 파싱 및 청킹
-        DocumentParser.ParsedDocument parsed = documentParser.parseFile(savedPath);
-        List<DocumentChunk> chunks = documentParser.createChunks(document, parsed.getContent());
-
-        // 4. 청크 저장
-        final PolicyDocument finalDocument = document;
-        chunks.forEach(chunk -> chunk.setDocument(finalDocument));
-        chunkRepository.saveAll(chunks);
-
-        // 5. 벡터 스토어에 인덱싱
-        vectorStoreService.indexChunks(chunks);
-
-        // 6. 인덱싱 완료 표시
+        // 2. 문서 파싱
+        DocumentParser.ParsedDocument parsed = metrics.timeChecked(PipelineMetrics.INGEST_STAGE, "parse",
+            () -> documentParser.parseFile(savedPath));
+
+        // 3. 문서 엔티티 생성, 청킹 및 청크 저장
+        PolicyDocument document = transactionTemplate.execute(status -> {
+            PolicyDocument saved = documentRepository.save(PolicyDocument.builder()
+                .title(title)
+                .documentCode(documentCode)
+                .documentType(documentType)
+                .department(department)
+                .filePath(savedPath.toString())
+                .fileName(file.getOriginalFilename())
+                .mimeType(file.getContentType())
+                .metadata(metadata)
+                .build());
+
+            List<DocumentChunk> chunks = metrics.time(PipelineMetrics.INGEST_STAGE, "chunk",
+                () -> documentParser.createChunks(saved, parsed.getContent()));
+            chunks.forEach(chunk -> chunk.setDocument(saved));
+            ChunkIdentity.assign(saved.getId(), chunks);
+            metrics.run(PipelineMetrics.INGEST_STAGE, "persist", () -> chunkRepository.saveAll(chunks));
+            saved.setChunks(chunks);
+            return saved;
+        });
+
+        // 4. 벡터 스토어에 인덱싱 (배치 임베딩, 트랜잭션 밖)
+        List<DocumentChunk> chunks = document.getChunks();
+        BulkVectorIndexer.IndexReport report = metrics.time(PipelineMetrics.INGEST_STAGE, "index",
+            () -> vectorStoreService.indexChunks(chunks));
+        metrics.count("document.ingest.chunks", chunks.size(), "operation", "upload");
+
+        // 5. 인덱싱 완료 표시
+        markIndexed(document.getId(), DocumentIndexChangedEvent.ChangeType.UPLOADED);
         document.setIndexed(true);
-        document.setChunks(chunks);
 
-        log.info("Document indexed: {} ({} chunks)", title, chunks.size());
-        return documentRepository.save(document);
+        log.info("Document indexed: {} ({} chunks, {} chunks/s)",
+            title, chunks.size(), String.format("%.1f", report.chunksPerSecond()));
+        return document;
     }
 
     /**
-     * 문서 재인덱싱
+     * 문서 재인덱싱 (증분)
+     * - 이전/새 청크를 본문 해시 키로 비교 (ChunkIdentity)
+     * - 새로 생기거나 바뀐 청크만 임베딩, 없어진 청크의 벡터만 삭제
+     * - 본문이 같고 위치/조항 정보만 바뀐 청크는 행과 벡터 메타데이터만 갱신
+     * - 직전 인덱싱이 실패한 문서(indexed=false)는 전체를 다시 임베딩
+     * - 트랜잭션 구성은 uploadAndIndex 와 같음 (임베딩은 트랜잭션 밖)
      */
-    @Transactional
     public void reindex(Long documentId) throws IOException {
         PolicyDocument document = documentRepository.findById(documentId)
             .orElseThrow(() -> new IllegalArgumentException("Document not found: " + documentId));
 
-        // 기존 청크 삭제
-        vectorStoreService.deleteByDocumentId(documentId);
-        chunkRepository.deleteByDocumentId(documentId);
-
-        // 재파싱 및 인덱싱
+        // 재파싱
         Path filePath = Paths.get(document.getFilePath());
-        DocumentParser.ParsedDocument parsed = documentParser.parseFile(filePath);
-        List<DocumentChunk> chunks = documentParser.createChunks(document, parsed.getContent());
+        DocumentParser.ParsedDocument parsed = metrics.timeChecked(PipelineMetrics.INGEST_STAGE, "parse",
+            () -> documentParser.parseFile(filePath));
 
-        final PolicyDocument finalDocument = document;
-        chunks.forEach(chunk -> chunk.setDocument(finalDocument));
-        chunkRepository.saveAll(chunks);
-        vectorStoreService.indexChunks(chunks);
+        // 이전 청크와 비교해 청크 행 반영, 없어진 청크의 벡터 삭제
+        ChunkDiff diff = transactionTemplate.execute(status -> {
+            PolicyDocument managed = documentRepository.findById(documentId)
+                .orElseThrow(() -> new IllegalArgumentException("Document not found: " + documentId));
 
-        document.setIndexed(true);
-        documentRepository.save(document);
+            List<DocumentChunk> created = metrics.time(PipelineMetrics.INGEST_STAGE, "chunk",
+                () -> documentParser.createChunks(managed, parsed.getContent()));
+            created.forEach(chunk -> chunk.setDocument(managed));
+            boolean wasIndexed = managed.isIndexed();
+            managed.setIndexed(false);
+            ChunkDiff applied = metrics.time(PipelineMetrics.INGEST_STAGE, "persist",
+                () -> applyChunkDiff(managed, created, wasIndexed));
+
+            // 벡터 삭제는 이 커밋으로 반영 - 임베딩이 끝나기 전(또는 실패해도) 캐시/1차 검색 인덱스에 남지 않도록
+            if (applied.removed() > 0) {
+                eventPublisher.publishEvent(new DocumentIndexChangedEvent(documentId,
+                    DocumentIndexChangedEvent.ChangeType.REINDEXED));
+                corpusVersion.bumpAfterCommit();
+            }
+            return applied;
+        });
+
+        BulkVectorIndexer.IndexReport report = metrics.time(PipelineMetrics.INGEST_STAGE, "index",
+            () -> vectorStoreService.indexChunks(diff.added()));
+        if (!diff.moved().isEmpty()) {
+            vectorStoreService.updateMetadata(diff.moved());
+        }
+        metrics.count("document.ingest.chunks", diff.added().size(), "operation", "reindex");
+        metrics.count("document.reindex.chunks", diff.added().size(), "change", "added");
+        metrics.count("document.reindex.chunks", diff.unchanged(), "change", "unchanged");
+        metrics.count("document.reindex.chunks", diff.removed(), "change", "removed");
+
+        markIndexed(documentId, DocumentIndexChangedEvent.ChangeType.REINDEXED);
+        log.info("Document re-indexed: {} ({} added, {} unchanged ({} moved), {} removed, {}ms)",
+            document.getTitle(), diff.added().size(), diff.unchanged(), diff.moved().size(), diff.removed(),
+            report.elapsedMs());
+    }
+
+    /**
+     * 새 청크 목록을 이전 청크 행에 반영 (트랜잭션 안에서 호출)
+     * - 키가 같은 이전 청크는 행을 유지하고 위치 정보만 갱신 (벡터 ID 유지)
+     * - 행은 남았지만 벡터가 없는 청크(임베딩 도중 실패)는 추가된 청크로 다시 임베딩
+     */
+    private ChunkDiff applyChunkDiff(PolicyDocument document, List<DocumentChunk> created, boolean wasIndexed) {
+        List<DocumentChunk> existing = new ArrayList<>(chunkRepository.findWithDocumentByDocumentId(document.getId()));
+        existing.sort(Comparator.comparing(DocumentChunk::getChunkIndex, Comparator.nullsLast(Comparator.naturalOrder())));
 
-        log.info("Document re-indexed: {}", document.getTitle());
+        // 직전 인덱싱이 끝나지 않았거나 vectorId 가 없는 예전 청크가 있으면 청크별로 비교할 수 없으므로 전체를 다시 인덱싱
+        if (!wasIndexed || existing.stream().anyMatch(chunk -> chunk.getVectorId() == null)) {
+            vectorStoreService.deleteByDocumentId(document.getId());
+            chunkRepository.deleteAll(existing);
+            ChunkIdentity.assign(document.getId(), created);
+            chunkRepository.saveAll(created);
+            return new ChunkDiff(created, List.of(), 0, existing.size());
+        }
+
+        Map<String, DocumentChunk> existingByKey = new HashMap<>();
+        List<String> existingKeys = ChunkIdentity.keys(existing);
+        for (int i = 0; i < existing.size(); i++) {
+            existingByKey.put(existingKeys.get(i), existing.get(i));
+        }
+
+        // 벡터 스토어에 실제로 있는 벡터 ID (행만 커밋되고 임베딩이 실패한 청크 확인용)
+        Set<String> storedVectorIds = vectorStoreService.existingVectorIds(
+            existing.stream().map(DocumentChunk::getVectorId).toList());
+
+        List<String> createdKeys = ChunkIdentity.assign(document.getId(), created);
+        List<DocumentChunk> added = new ArrayList<>();
+        List<DocumentChunk> moved = new ArrayList<>();
+        int unchanged = 0;
+        for (int i = 0; i < created.size(); i++) {
+            DocumentChunk chunk = created.get(i);
+            DocumentChunk previous = existingByKey.remove(createdKeys.get(i));
+            if (previous == null) {
+                added.add(chunk);
+                continue;
+            }
+
+            boolean stored = storedVectorIds.contains(previous.getVectorId());
+            if (stored) {
+                unchanged++;
+            }
+            boolean positionChanged = !Objects.equals(previous.getChunkIndex(), chunk.getChunkIndex())
+                || !Objects.equals(previous.getSectionTitle(), chunk.getSectionTitle())
+                || !Objects.equals(previous.getArticleNumber(), chunk.getArticleNumber());
+            previous.setChunkIndex(chunk.getChunkIndex());
+            previous.setSectionTitle(chunk.getSectionTitle());
+            previous.setArticleNumber(chunk.getArticleNumber());
+            previous.setPageNumber(chunk.getPageNumber());
+            previous.setStartOffset(chunk.getStartOffset());
+            previous.setEndOffset(chunk.getEndOffset());
+            previous.setContentHash(chunk.getContentHash());
+            if (!stored) {
+                added.add(previous);
+            } else if (positionChanged) {
+                moved.add(previous);
+            }
+        }
+
+        // 남은 이전 청크 = 없어진 청크
+        List<DocumentChunk> removed = new ArrayList<>(existingByKey.values());
+        List<String> removedVectorIds = removed.stream()
+            .map(DocumentChunk::getVectorId)
+            .filter(Objects::nonNull)
+            .toList();
+        vectorStoreService.deleteByIds(removedVectorIds);
+        chunkRepository.deleteAll(removed);
+        chunkRepository.saveAll(added);
+
+        return new ChunkDiff(added, moved, unchanged, removed.size());
+    }
+
+    /**
+     * 인덱싱 완료 표시 + 변경 이벤트 (커밋 후 캐시/사전 갱신)
+     */
+    private void markIndexed(Long documentId, DocumentIndexChangedEvent.ChangeType changeType) {
+        transactionTemplate.executeWithoutResult(status -> {
+            documentRepository.findById(documentId).ifPresent(document -> document.setIndexed(true));
+            eventPublisher.publishEvent(new DocumentIndexChangedEvent(documentId, changeType));
+            corpusVersion.bumpAfterCommit();
+        });
     }
 
     /**
@@ -148,9 +276,18 @@ public class DocumentService {
 
         // DB에서 삭제
         documentRepository.delete(document);
+
+        eventPublisher.publishEvent(new DocumentIndexChangedEvent(
+            documentId, DocumentIndexChangedEvent.ChangeType.DELETED));
+        corpusVersion.bumpAfterCommit();
         log.info("Document deleted: {}", document.getTitle());
     }
 
+    /**
+     * 재인덱싱 비교 결과 (임베딩할 청크, 메타데이터만 갱신할 청크, 유지 건수, 삭제 건수)
+     */
+    private record ChunkDiff(List<DocumentChunk> added, List<DocumentChunk> moved, int unchanged, int removed) {}
+
     private Path saveFile(MultipartFile file) throws IOException {
         Path uploadDir = Paths.get(uploadPath);
         if (!Files.exists(uploadDir)) {
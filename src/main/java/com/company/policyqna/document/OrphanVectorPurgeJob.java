@@ -0,0 +1,121 @@
+package com.company.policyqna.document;
+
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.vector.CorpusVersion;
+import com.company.policyqna.vector.VectorStoreService;
+import com.company.policyqna.vector.VectorWriter.VectorRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 고아 벡터 정리 작업
+ * - 청크가 없거나 청크의 vectorId 와 다른 벡터(예전 재인덱싱/삭제가 남긴 벡터)를 삭제
+ * - vectorId 가 비어 있는 예전 청크는 메타데이터 chunkId 가 가리키는 벡터 ID 를 먼저 채운다
+ * - 벡터 목록을 청크 목록보다 먼저 읽는다 (청크가 벡터보다 먼저 커밋되므로 인덱싱 중인 벡터는 지우지 않음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanVectorPurgeJob {
+
+    private final VectorStoreService vectorStoreService;
+    private final DocumentChunkRepository chunkRepository;
+    private final DocumentRepository documentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CorpusVersion corpusVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetrics metrics;
+
+    @Value("${rag.vector-maintenance.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    @Scheduled(cron = "${rag.vector-maintenance.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        purge();
+    }
+
+    public synchronized PurgeReport purge() {
+        long start = System.nanoTime();
+
+        List<VectorRef> vectors = vectorStoreService.listVectorRefs();
+        Map<Long, String> vectorIdByChunk = new HashMap<>();
+        for (Object[] row : chunkRepository.findAllVectorIds()) {
+            vectorIdByChunk.put((Long) row[0], (String) row[1]);
+        }
+
+        // 1. vectorId 가 비어 있는 예전 청크에 벡터 연결
+        Map<Long, String> backfill = new HashMap<>();
+        for (VectorRef vector : vectors) {
+            Long chunkId = parseId(vector.chunkId());
+            if (chunkId != null && vectorIdByChunk.containsKey(chunkId) && vectorIdByChunk.get(chunkId) == null) {
+                vectorIdByChunk.put(chunkId, vector.id());
+                backfill.put(chunkId, vector.id());
+            }
+        }
+        if (!backfill.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> backfill.forEach(chunkRepository::assignVectorId));
+        }
+
+        // 2. 청크가 가리키지 않는 벡터 삭제
+        List<String> orphans = new ArrayList<>();
+        Set<Long> affectedDocuments = new HashSet<>();
+        for (VectorRef vector : vectors) {
+            Long chunkId = parseId(vector.chunkId());
+            if (chunkId == null || !vector.id().equals(vectorIdByChunk.get(chunkId))) {
+                orphans.add(vector.id());
+                Long documentId = parseId(vector.documentId());
+                if (documentId != null) {
+                    affectedDocuments.add(documentId);
+                }
+            }
+        }
+
+        int deleted = 0;
+        for (int from = 0; from < orphans.size(); from += deleteBatchSize) {
+            deleted += vectorStoreService.deleteByIds(orphans.subList(from, Math.min(from + deleteBatchSize, orphans.size())));
+        }
+
+        // 3. 문서 단위 캐시(양자화 1차 검색, 답변 캐시 등) 갱신
+        if (deleted > 0) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Long documentId : affectedDocuments) {
+                    DocumentIndexChangedEvent.ChangeType changeType = documentRepository.existsById(documentId)
+                        ? DocumentIndexChangedEvent.ChangeType.REINDEXED
+                        : DocumentIndexChangedEvent.ChangeType.DELETED;
+                    eventPublisher.publishEvent(new DocumentIndexChangedEvent(documentId, changeType));
+                }
+                corpusVersion.bumpAfterCommit();
+            });
+        }
+
+        metrics.count("document.vector.orphans_purged", deleted);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Orphan vector purge: {} vectors scanned, {} orphans deleted, {} chunks linked ({}ms)",
+            vectors.size(), deleted, backfill.size(), elapsedMs);
+        return new PurgeReport(vectors.size(), deleted, backfill.size(), elapsedMs);
+    }
+
+    private static Long parseId(String value) {
+        if (value == null || value.isEmpty() || "null".equals(value)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 정리 결과 (검사한 벡터 수, 삭제한 벡터 수, vectorId 를 채운 청크 수, 소요 시간)
+     */
+    public record PurgeReport(int scanned, int deleted, int linked, long elapsedMs) {}
+}
@@ -7,6 +7,7 @@ import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * 문서 청크 - 벡터 검색 단위
@@ -56,12 +57,19 @@ public class DocumentChunk {
     @Column(name = "vector_id")
     private String vectorId;  // 벡터 스토어의 ID
 
+    @Column(name = "content_hash")
+    private String contentHash;  // 본문 SHA-256 (재인덱싱 시 변경 여부 판단)
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        // 벡터는 청크 커밋 후 이 ID 로 기록된다
+        if (vectorId == null) {
+            vectorId = UUID.randomUUID().toString();
+        }
     }
 
     /**
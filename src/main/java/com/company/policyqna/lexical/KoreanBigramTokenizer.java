@@ -0,0 +1,88 @@
+package com.company.policyqna.lexical;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 한국어 키워드 검색용 토크나이저
+ * - 단어(공백/구두점 기준) 안의 한글/숫자는 2글자 단위(bigram)로 분리 -> 조사가 붙어도 일치
+ * - 영문/숫자가 섞인 단어는 단어 전체도 토큰으로 유지 (예: br-001, 제15조, 3.2.1)
+ */
+public final class KoreanBigramTokenizer {
+
+    private KoreanBigramTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isWordChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && (isWordChar(text.charAt(i)) || isJoiner(text, i))) {
+                i++;
+            }
+            addWord(text.substring(start, i).toLowerCase(Locale.ROOT), tokens);
+        }
+        return tokens;
+    }
+
+    private static void addWord(String word, List<String> tokens) {
+        boolean code = false;
+        StringBuilder grams = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (isAsciiLetter(c) || isDigit(c)) {
+                code = true;
+            }
+            if (isHangul(c) || isDigit(c)) {
+                grams.append(c);
+            }
+        }
+
+        if (grams.length() == 1 && !code) {
+            tokens.add(grams.toString());
+        }
+        for (int i = 0; i + 2 <= grams.length(); i++) {
+            tokens.add(grams.substring(i, i + 2));
+        }
+
+        // 2글자 bigram 과 같은 단어는 중복 추가하지 않는다
+        if (code && !(grams.length() == 2 && grams.toString().equals(word))) {
+            tokens.add(word);
+        }
+    }
+
+    /**
+     * 단어 사이 연결 문자 ('-', '.') - 뒤에 단어 문자가 이어질 때만 인정
+     */
+    private static boolean isJoiner(String text, int index) {
+        char c = text.charAt(index);
+        return (c == '-' || c == '.') && index + 1 < text.length() && isWordChar(text.charAt(index + 1));
+    }
+
+    private static boolean isWordChar(char c) {
+        return isHangul(c) || isDigit(c) || isAsciiLetter(c);
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,238 @@
+package com.company.policyqna.lexical;
+
+import com.company.policyqna.document.DocumentChunkRepository;
+import com.company.policyqna.document.DocumentIndexChangedEvent;
+import com.company.policyqna.domain.DocumentChunk;
+import com.company.policyqna.vector.SearchFilter;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 청크 본문 역색인 (메모리)
+ * - 한글 bigram 토큰 + BM25 점수
+ * - 조항 번호/문서 코드처럼 임베딩으로는 잘 잡히지 않는 정확한 키워드 검색용
+ * - 기동 시 전체 로드, 이후 문서 업로드/재인덱싱/삭제 이벤트로 문서 단위 갱신
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LexicalIndex implements MeterBinder {
+
+    private final DocumentChunkRepository chunkRepository;
+
+    @Value("${rag.lexical.bm25.k1:1.2}")
+    private double k1;
+
+    @Value("${rag.lexical.bm25.b:0.75}")
+    private double b;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // token -> (chunkId -> 출현 횟수)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedChunk> chunks = new HashMap<>();
+    private final Map<Long, Set<Long>> chunksByDocument = new HashMap<>();
+    private long totalLength;
+
+    // 기동 워밍업(ApplicationRunner)과 readiness 전에 적재되도록 started 시점에 로드
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<DocumentChunk> all = chunkRepository.findAllWithDocument();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            chunks.clear();
+            chunksByDocument.clear();
+            totalLength = 0;
+            all.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Lexical index loaded: {} chunks, {} tokens", all.size(), postings.size());
+    }
+
+    /**
+     * 문서 변경 반영 (커밋 후 문서 단위로 교체)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onDocumentIndexChanged(DocumentIndexChangedEvent event) {
+        List<DocumentChunk> updated = event.changeType() == DocumentIndexChangedEvent.ChangeType.DELETED
+            ? List.of()
+            : chunkRepository.findWithDocumentByDocumentId(event.documentId());
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.documentId());
+            updated.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Lexical index updated for document {} ({}): {} chunks",
+            event.documentId(), event.changeType(), updated.size());
+    }
+
+    /**
+     * BM25 검색 - 점수 내림차순 상위 topK
+     */
+    public List<SearchResult> search(String query, int topK) {
+        return search(query, topK, SearchFilter.none());
+    }
+
+    /**
+     * 필터 범위(부서/문서 유형) 내 BM25 검색
+     */
+    public List<SearchResult> search(String query, int topK, SearchFilter filter) {
+        Map<String, Integer> queryTokens = new HashMap<>();
+        for (String token : KoreanBigramTokenizer.tokenize(query)) {
+            queryTokens.merge(token, 1, Integer::sum);
+        }
+        if (queryTokens.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = chunks.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<String, Integer> queryToken : queryTokens.entrySet()) {
+                Map<Long, Integer> posting = postings.get(queryToken.getKey());
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int length = chunks.get(entry.getKey()).length();
+                    double norm = tf + k1 * (1 - b + b * length / averageLength);
+                    double score = queryToken.getValue() * idf * tf * (k1 + 1) / norm;
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top =
+                new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (!filter.matches(chunks.get(entry.getKey()).result().getMetadata())) {
+                    continue;
+                }
+                top.offer(entry);
+                if (top.size() > topK) {
+                    top.poll();
+                }
+            }
+
+            List<SearchResult> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Long, Double> entry = top.poll();
+                results.add(chunks.get(entry.getKey()).result().toBuilder().score(entry.getValue()).build());
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return chunks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(DocumentChunk chunk) {
+        if (chunk.getId() == null || chunk.getContent() == null) {
+            return;
+        }
+
+        List<String> tokens = KoreanBigramTokenizer.tokenize(chunk.getContent());
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+        frequencies.forEach((token, tf) ->
+            postings.computeIfAbsent(token, t -> new HashMap<>()).put(chunk.getId(), tf));
+
+        Long documentId = chunk.getDocument().getId();
+        chunks.put(chunk.getId(), new IndexedChunk(toSearchResult(chunk), tokens.size(), frequencies.keySet()));
+        chunksByDocument.computeIfAbsent(documentId, id -> new HashSet<>()).add(chunk.getId());
+        totalLength += tokens.size();
+    }
+
+    private void removeDocument(Long documentId) {
+        Set<Long> chunkIds = chunksByDocument.remove(documentId);
+        if (chunkIds == null) {
+            return;
+        }
+        for (Long chunkId : chunkIds) {
+            IndexedChunk removed = chunks.remove(chunkId);
+            if (removed == null) {
+                continue;
+            }
+            totalLength -= removed.length();
+            for (String token : removed.tokens()) {
+                Map<Long, Integer> posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(chunkId);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+
+    private SearchResult toSearchResult(DocumentChunk chunk) {
+        var document = chunk.getDocument();
+
+        // 벡터 검색 결과와 같은 메타데이터 키 사용
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("chunkId", String.valueOf(chunk.getId()));
+        metadata.put("documentId", String.valueOf(document.getId()));
+        metadata.put("documentType", document.getDocumentType() != null ? document.getDocumentType().name() : null);
+        metadata.put("department", document.getDepartment());
+
+        return SearchResult.builder()
+            .chunkId(String.valueOf(chunk.getId()))
+            .vectorId(chunk.getVectorId())
+            .content(chunk.getContent())
+            .documentId(document.getId())
+            .documentTitle(document.getTitle())
+            .documentCode(document.getDocumentCode())
+            .sectionTitle(chunk.getSectionTitle())
+            .articleNumber(chunk.getArticleNumber())
+            .chunkIndex(chunk.getChunkIndex())
+            .metadata(metadata)
+            .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rag.lexical.chunks", this, LexicalIndex::size)
+            .register(registry);
+    }
+
+    private record IndexedChunk(SearchResult result, int length, Set<String> tokens) {}
+}
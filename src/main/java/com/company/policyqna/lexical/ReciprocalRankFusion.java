@@ -0,0 +1,38 @@
+package com.company.policyqna.lexical;
+
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 순위 기반 결과 병합 (Reciprocal Rank Fusion)
+ * - 점수 척도가 다른 검색 결과(코사인 유사도, BM25)를 순위만으로 합산: Σ 1 / (k + rank)
+ * - 병합 점수는 결과가 있는 모든 목록에서 1위일 때 1.0 이 되도록 정규화
+ */
+public final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {
+    }
+
+    public static List<SearchResult> fuse(List<List<SearchResult>> rankings, int k, int topK) {
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, SearchResult> firstSeen = new LinkedHashMap<>();
+
+        for (List<SearchResult> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                SearchResult result = ranking.get(rank);
+                scores.merge(result.getChunkId(), 1.0 / (k + rank + 1), Double::sum);
+                firstSeen.putIfAbsent(result.getChunkId(), result);
+            }
+        }
+
+        long nonEmpty = rankings.stream().filter(ranking -> !ranking.isEmpty()).count();
+        double maxScore = Math.max(1, nonEmpty) / (double) (k + 1);
+        return firstSeen.values().stream()
+            .map(result -> result.toBuilder().score(scores.get(result.getChunkId()) / maxScore).build())
+            .sorted(Comparator.comparingDouble(SearchResult::getScore).reversed())
+            .limit(topK)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,175 @@
+package com.company.policyqna.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 파이프라인 단계별 지표 기록
+ * - 단계별 지연시간 (Timer, p50/p95/p99 히스토그램은 application.yml 에서 설정)
+ * - 처리량 카운터
+ * - LLM 토큰 사용량
+ * - 기동 워밍업의 합성 질문은 QnA 지표(rag.*)에 기록하지 않음 (SLO 지표 오염 방지)
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    /** QnA 파이프라인 단계 (cache, definition, redirect, expansion, embedding, pgvector|hnsw|quantized|hierarchical, prefilter, rescore, section, search, lexical, rerank, mmr, terms, context, admission, generation) */
+    public static final String RAG_STAGE = "rag.pipeline.stage";
+
+    /** 문서 수집 단계 (parse, chunk, persist, index, embed, write) */
+    public static final String INGEST_STAGE = "document.ingest.stage";
+
+    /** 기동 워밍업 단계 (embedding-model, chat-model, pg-prewarm, question) */
+    public static final String WARMUP_STAGE = "rag.warmup.stage";
+
+    public static final String LLM_TOKENS = "rag.llm.tokens";
+
+    private final MeterRegistry registry;
+
+    // 진행 중인 워밍업 수 (0 보다 크면 rag.warmup.* 외 rag.* 지표 기록 생략)
+    private final AtomicInteger warmups = new AtomicInteger();
+
+    /**
+     * 워밍업 작업 실행 - 그동안 QnA 파이프라인 지표는 기록하지 않는다
+     * (파이프라인 단계가 여러 스레드에서 실행되므로 스레드가 아닌 기간 단위로 제외, readiness 전이라 실제 요청은 거의 없음)
+     */
+    public void runWarmup(Runnable task) {
+        warmups.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            warmups.decrementAndGet();
+        }
+    }
+
+    /**
+     * 단계 실행 시간 측정
+     */
+    public <T> T time(String metric, String stage, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = task.get();
+            outcome = "success";
+            return result;
+        } finally {
+            stop(sample, metric, stage, outcome);
+        }
+    }
+
+    /**
+     * 단계 실행 시간 측정 (검사 예외 허용)
+     */
+    public <T, E extends Exception> T timeChecked(String metric, String stage, CheckedSupplier<T, E> task) throws E {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = task.get();
+            outcome = "success";
+            return result;
+        } finally {
+            stop(sample, metric, stage, outcome);
+        }
+    }
+
+    /**
+     * 스트림 구독부터 완료/오류/취소까지의 시간 측정
+     */
+    public <T> Flux<T> timeFlux(String metric, String stage, Flux<T> flux) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return flux
+                .doOnComplete(() -> stop(sample, metric, stage, "success"))
+                .doOnError(e -> stop(sample, metric, stage, "error"))
+                .doOnCancel(() -> stop(sample, metric, stage, "cancelled"));
+        });
+    }
+
+    public void run(String metric, String stage, Runnable task) {
+        time(metric, stage, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 처리 건수 증가
+     */
+    public void count(String metric, String... tags) {
+        if (skipped(metric)) {
+            return;
+        }
+        Counter.builder(metric)
+            .tags(tags)
+            .register(registry)
+            .increment();
+    }
+
+    public void count(String metric, double amount, String... tags) {
+        if (skipped(metric)) {
+            return;
+        }
+        Counter.builder(metric)
+            .tags(tags)
+            .register(registry)
+            .increment(amount);
+    }
+
+    /**
+     * 값 분포 기록 (처리량 등)
+     */
+    public void record(String metric, double value, String baseUnit) {
+        if (skipped(metric)) {
+            return;
+        }
+        DistributionSummary.builder(metric)
+            .baseUnit(baseUnit)
+            .register(registry)
+            .record(value);
+    }
+
+    /**
+     * LLM 토큰 수 기록 (type: prompt / generation)
+     */
+    public void recordTokens(String type, Long tokens) {
+        if (tokens == null || tokens <= 0 || skipped(LLM_TOKENS)) {
+            return;
+        }
+        DistributionSummary.builder(LLM_TOKENS)
+            .baseUnit("tokens")
+            .tag("type", type)
+            .register(registry)
+            .record(tokens);
+    }
+
+    private void stop(Timer.Sample sample, String metric, String stage, String outcome) {
+        if (!skipped(metric)) {
+            sample.stop(timer(metric, stage, outcome));
+        }
+    }
+
+    private boolean skipped(String metric) {
+        return warmups.get() > 0 && metric.startsWith("rag.") && !metric.startsWith("rag.warmup.");
+    }
+
+    private Timer timer(String metric, String stage, String outcome) {
+        return Timer.builder(metric)
+            .tag("stage", stage)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface CheckedSupplier<T, E extends Exception> {
+        T get() throws E;
+    }
+}
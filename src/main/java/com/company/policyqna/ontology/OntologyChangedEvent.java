@@ -0,0 +1,14 @@
+package com.company.policyqna.ontology;
+
+/**
+ * 온톨로지 변경 이벤트
+ * - 개념, 관계, 규칙이 추가/변경될 때 발행
+ */
+public record OntologyChangedEvent(ChangeType changeType) {
+
+    public enum ChangeType {
+        CONCEPT,
+        RELATION,
+        RULE
+    }
+}
@@ -2,6 +2,7 @@ package com.company.policyqna.ontology;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,7 @@ public class OntologyService {
     private final OntologyRepository conceptRepository;
     private final OntologyRelationRepository relationRepository;
     private final OntologyRuleRepository ruleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== 개념 관리 ====================
 
@@ -41,7 +43,9 @@ public class OntologyService {
             .abbreviations(abbreviations != null ? abbreviations : new ArrayList<>())
             .build();
 
-        return conceptRepository.save(concept);
+        concept = conceptRepository.save(concept);
+        eventPublisher.publishEvent(new OntologyChangedEvent(OntologyChangedEvent.ChangeType.CONCEPT));
+        return concept;
     }
 
     @Transactional
@@ -63,7 +67,49 @@ public class OntologyService {
             .description(description)
             .build();
 
-        return relationRepository.save(relation);
+        relation = relationRepository.save(relation);
+        eventPublisher.publishEvent(new OntologyChangedEvent(OntologyChangedEvent.ChangeType.RELATION));
+        return relation;
+    }
+
+    // ==================== 규칙 관리 ====================
+
+    @Transactional
+    public OntologyRule createRule(
+            String name,
+            OntologyRule.RuleType type,
+            String condition,
+            String consequence,
+            String description,
+            Integer priority) {
+
+        OntologyRule rule = OntologyRule.builder()
+            .name(name)
+            .ruleType(type)
+            .condition(condition)
+            .consequence(consequence)
+            .description(description)
+            .priority(priority != null ? priority : 0)
+            .isActive(true)
+            .build();
+
+        rule = ruleRepository.save(rule);
+        eventPublisher.publishEvent(new OntologyChangedEvent(OntologyChangedEvent.ChangeType.RULE));
+        return rule;
+    }
+
+    /**
+     * 규칙 활성화/비활성화
+     */
+    @Transactional
+    public Optional<OntologyRule> toggleRule(Long ruleId) {
+        return ruleRepository.findById(ruleId)
+            .map(rule -> {
+                rule.setIsActive(!rule.getIsActive());
+                OntologyRule saved = ruleRepository.save(rule);
+                eventPublisher.publishEvent(new OntologyChangedEvent(OntologyChangedEvent.ChangeType.RULE));
+                return saved;
+            });
     }
 
     // ==================== 검색 확장 ====================
@@ -71,6 +117,7 @@ public class OntologyService {
     /**
      * 검색어 확장 - 동의어, 약어, 관련 개념 포함
      */
+    @Transactional(readOnly = true)
     public QueryExpansion expandQuery(String query) {
         Set<String> expandedTerms = new HashSet<>();
         expandedTerms.add(query);
@@ -78,11 +125,13 @@ public class OntologyService {
         List<OntologyConcept> matchedConcepts = new ArrayList<>();
         Map<String, Double> termWeights = new HashMap<>();
         termWeights.put(query, 1.0);
+        Map<String, ConceptTerm> conceptTerms = new LinkedHashMap<>();
 
         // 1. 정확히 일치하는 개념 찾기
         conceptRepository.findByName(query).ifPresent(concept -> {
             matchedConcepts.add(concept);
             addConceptTerms(concept, expandedTerms, termWeights);
+            addConceptTerm(concept, 1.0, null, conceptTerms);
         });
 
         // 2. 동의어/약어로 검색
@@ -90,12 +139,14 @@ public class OntologyService {
             matchedConcepts.add(concept);
             expandedTerms.add(concept.getName());
             termWeights.put(concept.getName(), 0.9);
+            addConceptTerm(concept, 0.9, null, conceptTerms);
         });
 
         conceptRepository.findByAbbreviation(query).forEach(concept -> {
             matchedConcepts.add(concept);
             expandedTerms.add(concept.getName());
             termWeights.put(concept.getName(), 0.9);
+            addConceptTerm(concept, 0.9, null, conceptTerms);
         });
 
         // 3. 규칙 기반 확장
@@ -103,7 +154,7 @@ public class OntologyService {
 
         // 4. 관련 개념 추가 (가중치 낮춤)
         for (OntologyConcept concept : matchedConcepts) {
-            addRelatedConcepts(concept, expandedTerms, termWeights);
+            addRelatedConcepts(concept, expandedTerms, termWeights, conceptTerms);
         }
 
         log.debug("Query '{}' expanded to: {}", query, expandedTerms);
@@ -113,6 +164,7 @@ public class OntologyService {
             .expandedTerms(new ArrayList<>(expandedTerms))
             .termWeights(termWeights)
             .matchedConcepts(matchedConcepts)
+            .conceptTerms(new ArrayList<>(conceptTerms.values()))
             .build();
     }
 
@@ -136,7 +188,11 @@ public class OntologyService {
     /**
      * 관련 개념 추가
      */
-    private void addRelatedConcepts(OntologyConcept concept, Set<String> terms, Map<String, Double> weights) {
+    private void addRelatedConcepts(
+            OntologyConcept concept,
+            Set<String> terms,
+            Map<String, Double> weights,
+            Map<String, ConceptTerm> conceptTerms) {
         List<OntologyRelation> relations = relationRepository.findBySourceConceptId(concept.getId());
 
         for (OntologyRelation relation : relations) {
@@ -152,9 +208,37 @@ public class OntologyService {
 
             terms.add(related.getName());
             weights.putIfAbsent(related.getName(), weight);
+            addConceptTerm(related, weight, relation.getRelationType(), conceptTerms);
         }
     }
 
+    /**
+     * 재순위용 개념 표현 수집 (같은 개념은 높은 가중치 유지)
+     */
+    private void addConceptTerm(
+            OntologyConcept concept,
+            double weight,
+            OntologyRelation.RelationType relationType,
+            Map<String, ConceptTerm> conceptTerms) {
+
+        ConceptTerm existing = conceptTerms.get(concept.getName());
+        if (existing != null && existing.getWeight() >= weight) {
+            return;
+        }
+
+        List<String> surfaceForms = new ArrayList<>();
+        surfaceForms.add(concept.getName());
+        surfaceForms.addAll(concept.getSynonyms());
+        surfaceForms.addAll(concept.getAbbreviations());
+
+        conceptTerms.put(concept.getName(), ConceptTerm.builder()
+            .name(concept.getName())
+            .surfaceForms(surfaceForms)
+            .weight(weight)
+            .relationType(relationType)
+            .build());
+    }
+
     /**
      * 규칙 기반 확장
      */
@@ -177,6 +261,7 @@ public class OntologyService {
     /**
      * 검색 리다이렉트 - 특정 키워드에 대해 직접 문서/조항 연결
      */
+    @Transactional(readOnly = true)
     public Optional<RedirectResult> checkRedirect(String query) {
         List<OntologyRule> redirectRules = ruleRepository.findRedirectRulesForKeyword(query);
 
@@ -246,22 +331,53 @@ public class OntologyService {
     /**
      * 용어 정의 및 출처 조회
      */
+    @Transactional(readOnly = true)
     public Optional<TermDefinition> getTermDefinition(String term) {
         return conceptRepository.findByName(term)
-            .map(concept -> {
-                List<OntologyRelation> definitions =
-                    relationRepository.findDefinitionLocation(term);
-
-                return TermDefinition.builder()
-                    .term(term)
-                    .definition(concept.getDefinition())
-                    .conceptType(concept.getConceptType())
-                    .synonyms(concept.getSynonyms())
-                    .sourceReferences(definitions.stream()
-                        .map(r -> r.getTargetConcept().getName())
-                        .collect(Collectors.toList()))
-                    .build();
-            });
+            .map(concept -> toTermDefinition(concept, TermDefinition.MatchType.NAME));
+    }
+
+    /**
+     * 개념명 -> 동의어 -> 약어 순으로 용어 정의 조회 (matchType 에 일치 방식 기록)
+     */
+    @Transactional(readOnly = true)
+    public Optional<TermDefinition> resolveTermDefinition(String term) {
+        Optional<OntologyConcept> byName = conceptRepository.findByName(term);
+        if (byName.isPresent()) {
+            return Optional.of(toTermDefinition(byName.get(), TermDefinition.MatchType.NAME));
+        }
+
+        List<OntologyConcept> bySynonym = conceptRepository.findBySynonym(term);
+        if (!bySynonym.isEmpty()) {
+            return Optional.of(toTermDefinition(bySynonym.get(0), TermDefinition.MatchType.SYNONYM));
+        }
+
+        List<OntologyConcept> byAbbreviation = conceptRepository.findByAbbreviation(term);
+        if (!byAbbreviation.isEmpty()) {
+            return Optional.of(toTermDefinition(byAbbreviation.get(0), TermDefinition.MatchType.ABBREVIATION));
+        }
+        return Optional.empty();
+    }
+
+    private TermDefinition toTermDefinition(OntologyConcept concept, TermDefinition.MatchType matchType) {
+        List<OntologyRelation> definitions =
+            relationRepository.findDefinitionLocation(concept.getName());
+
+        List<String> sourceReferences = definitions.stream()
+            .map(r -> r.getTargetConcept().getName())
+            .collect(Collectors.toList());
+        if (concept.getSourceReference() != null && !sourceReferences.contains(concept.getSourceReference())) {
+            sourceReferences.add(concept.getSourceReference());
+        }
+
+        return TermDefinition.builder()
+            .term(concept.getName())
+            .definition(concept.getDefinition())
+            .conceptType(concept.getConceptType())
+            .synonyms(new ArrayList<>(concept.getSynonyms()))
+            .sourceReferences(sourceReferences)
+            .matchType(matchType)
+            .build();
     }
 
     // ==================== DTO 클래스들 ====================
@@ -273,6 +389,19 @@ public class OntologyService {
         private List<String> expandedTerms;
         private Map<String, Double> termWeights;
         private List<OntologyConcept> matchedConcepts;
+        private List<ConceptTerm> conceptTerms;
+    }
+
+    /**
+     * 질문과 관련된 개념의 표현들 (relationType 이 null 이면 질문에서 직접 일치한 개념)
+     */
+    @lombok.Builder
+    @lombok.Getter
+    public static class ConceptTerm {
+        private String name;
+        private List<String> surfaceForms;
+        private double weight;
+        private OntologyRelation.RelationType relationType;
     }
 
     @lombok.Builder
@@ -299,5 +428,10 @@ public class OntologyService {
         private OntologyConcept.ConceptType conceptType;
         private List<String> synonyms;
         private List<String> sourceReferences;
+        private MatchType matchType;
+
+        public enum MatchType {
+            NAME, SYNONYM, ABBREVIATION
+        }
     }
 }
@@ -0,0 +1,178 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.ontology.OntologyService;
+import com.company.policyqna.ontology.OntologyService.QueryExpansion;
+import com.company.policyqna.ontology.OntologyService.RedirectResult;
+import com.company.policyqna.rag.RagPipelineService.QnaResponse;
+import com.company.policyqna.rag.RagPipelineService.Retrieval;
+import com.company.policyqna.vector.SearchFilter;
+import com.company.policyqna.vector.VectorStoreService;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+
+/**
+ * 일괄 질문 처리 서비스 (FAQ 재생성, 회귀 점검 등 야간 작업용)
+ * 1. 질문을 검색 범위(필터)별로 묶고, 범위 단위로 차례대로 검색 단계 수행
+ *    - 질문별 리다이렉트 확인 / 온톨로지 확장
+ *    - 범위 안 전체 질문의 검색어를 중복 제거 후 배치 임베딩 + 검색
+ *    - 질문별로 검색 결과 병합 (키워드 검색 결과와 순위 병합, 온톨로지 재순위 포함)
+ * 2. 검색이 끝난 범위의 질문부터 동시 실행 수를 제한해 LLM 답변 생성, 완료되는 대로 반환
+ *    (BATCH 우선순위 - 대화형 요청에 양보)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchQnaService {
+
+    private final RagPipelineService ragPipelineService;
+    private final OntologyService ontologyService;
+    private final VectorStoreService vectorStoreService;
+    private final PipelineMetrics metrics;
+
+    @Value("${rag.batch.generation-concurrency:2}")
+    private int generationConcurrency;
+
+    @Value("${rag.batch.search-deadline-ms:60000}")
+    private long searchDeadlineMs;
+
+    /**
+     * 일괄 질문 처리 - 완료된 항목부터 순서 없이 반환
+     * 전체 검색을 기다리지 않고 검색 범위 하나의 검색이 끝나면 그 질문들의 답변 생성을 시작한다.
+     */
+    public Flux<BatchItem> processBatch(List<BatchQuestion> questions) {
+        log.info("Processing batch of {} questions", questions.size());
+
+        Map<SearchFilter, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            groups.computeIfAbsent(questions.get(i).filter(), f -> new ArrayList<>()).add(i);
+        }
+
+        return Flux.fromIterable(groups.entrySet())
+            .concatMap(group -> Mono.fromCallable(() -> retrieveGroup(group.getKey(), group.getValue(), questions))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .flatMapIterable(prepared -> prepared)
+            .flatMap(prepared -> Mono.fromCallable(() -> answer(prepared))
+                    .subscribeOn(Schedulers.boundedElastic()),
+                generationConcurrency);
+    }
+
+    /**
+     * 검색 범위 하나의 검색 단계 일괄 수행 (검색어 단위로 공유)
+     * 검색/병합이 실패하면 그 범위의 질문만 실패 항목으로 반환 (다른 범위는 계속 처리)
+     */
+    private List<Prepared> retrieveGroup(SearchFilter filter, List<Integer> indices, List<BatchQuestion> questions) {
+        // 1. 질문별 리다이렉트 확인 / 쿼리 확장
+        List<Prepared> prepared = new ArrayList<>(indices.size());
+        for (int i : indices) {
+            String question = questions.get(i).question();
+            try {
+                RedirectResult redirect = ontologyService.checkRedirect(question).orElse(null);
+                QueryExpansion expansion = redirect == null
+                    ? ontologyService.expandQuery(question)
+                    : ragPipelineService.fallbackExpansion(question);
+                prepared.add(new Prepared(i, question, filter, redirect, expansion,
+                    ragPipelineService.searchTermsFor(question, redirect, expansion), null));
+            } catch (RuntimeException e) {
+                log.warn("Batch item {} failed during expansion: {}", i, e.getMessage());
+                prepared.add(new Prepared(i, question, filter, null, null, Collections.emptyMap(), e.getMessage()));
+            }
+        }
+
+        try {
+            searchAndMerge(filter, prepared);
+            return prepared;
+        } catch (RuntimeException e) {
+            log.warn("Batch retrieval ({}) failed for {} questions: {}", filter, prepared.size(), e.getMessage());
+            return prepared.stream()
+                .map(p -> p.getError() != null ? p : p.failed(e.getMessage()))
+                .toList();
+        }
+    }
+
+    private void searchAndMerge(SearchFilter filter, List<Prepared> prepared) {
+        // 2. 검색어 중복 제거 후 한 번에 검색
+        Set<String> terms = new LinkedHashSet<>();
+        prepared.forEach(p -> terms.addAll(p.getTerms().keySet()));
+
+        int poolSize = ragPipelineService.getCandidatePoolSize();
+        Map<String, List<SearchResult>> resultsByTerm = metrics.time(PipelineMetrics.RAG_STAGE, "search",
+            () -> vectorStoreService.searchTerms(terms, poolSize, searchDeadlineMs, filter));
+
+        int requested = prepared.stream().mapToInt(p -> p.getTerms().size()).sum();
+        log.info("Batch retrieval ({}): {} questions, {} sub-searches shared as {} unique searches",
+            filter, prepared.size(), requested, terms.size());
+
+        // 3. 질문별 결과 병합
+        for (Prepared p : prepared) {
+            if (p.getError() != null) {
+                continue;
+            }
+            Map<String, List<SearchResult>> own = new LinkedHashMap<>();
+            p.getTerms().keySet().forEach(term -> own.put(term, resultsByTerm.getOrDefault(term, List.of())));
+            List<SearchResult> merged = vectorStoreService.mergeWeighted(own, p.getTerms(), poolSize);
+            String lexicalQuery = p.getRedirect() != null ? p.getRedirect().getTargetReference() : p.getQuestion();
+            List<SearchResult> candidates = ragPipelineService.fuse(merged,
+                ragPipelineService.lexicalSearch(lexicalQuery, p.getFilter()));
+            p.setResults(ragPipelineService.rerank(p.getExpansion(), candidates));
+        }
+    }
+
+    /**
+     * 질문 하나의 답변 생성
+     */
+    private BatchItem answer(Prepared prepared) {
+        if (prepared.getError() != null) {
+            return new BatchItem(prepared.getIndex(), prepared.getQuestion(), null, prepared.getError());
+        }
+        try {
+            Retrieval retrieval = ragPipelineService.toRetrieval(
+                prepared.getQuestion(), prepared.getRedirect(), prepared.getExpansion(), prepared.getResults());
+            QnaResponse response = ragPipelineService.complete(retrieval, GenerationAdmission.Priority.BATCH);
+            return new BatchItem(prepared.getIndex(), prepared.getQuestion(), response, null);
+        } catch (RuntimeException e) {
+            log.warn("Batch item {} failed: {}", prepared.getIndex(), e.getMessage());
+            return new BatchItem(prepared.getIndex(), prepared.getQuestion(), null, e.getMessage());
+        }
+    }
+
+    /**
+     * 일괄 처리 중간 상태
+     */
+    @lombok.Getter
+    @lombok.RequiredArgsConstructor
+    private static class Prepared {
+        private final int index;
+        private final String question;
+        private final SearchFilter filter;
+        private final RedirectResult redirect;
+        private final QueryExpansion expansion;
+        private final Map<String, Double> terms;
+        private final String error;
+
+        @lombok.Setter
+        private List<SearchResult> results = List.of();
+
+        Prepared failed(String message) {
+            return new Prepared(index, question, filter, null, null, Collections.emptyMap(), message);
+        }
+    }
+
+    /**
+     * 일괄 처리 요청 항목
+     */
+    public record BatchQuestion(String question, SearchFilter filter) {}
+
+    /**
+     * 일괄 처리 결과 항목 (index: 요청 목록에서의 위치)
+     */
+    public record BatchItem(int index, String question, QnaResponse response, String error) {}
+}
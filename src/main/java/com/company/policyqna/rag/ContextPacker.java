@@ -0,0 +1,230 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * LLM 컨텍스트 구성기
+ * - 같은 문서의 인접 청크(chunkIndex 연속)를 하나로 병합
+ * - 청크 간 오버랩 구간 제거
+ * - 점수순으로 토큰 예산 안에 맞춰 배치
+ */
+@Component
+@Slf4j
+public class ContextPacker {
+
+    private static final String HEADER = "=== 관련 문서 내용 ===\n\n";
+    private static final String SEPARATOR = "\n\n---\n\n";
+
+    // 오버랩으로 판단할 최소 길이 (우연한 일치 방지)
+    private static final int MIN_OVERLAP = 20;
+
+    // 잘라서라도 넣을 최소 남은 예산
+    private static final int MIN_PARTIAL_TOKENS = 80;
+
+    @Value("${rag.context.token-budget:1500}")
+    private int tokenBudget;
+
+    @Value("${document.chunk-overlap:200}")
+    private int chunkOverlap;
+
+    /**
+     * 검색 결과로 컨텍스트 구성
+     */
+    public PackedContext pack(List<SearchResult> results) {
+        int originalTokens = estimateTokens(HEADER) + results.stream()
+            .mapToInt(r -> estimateTokens(blockHeader(0, r.getSourceReference()) + r.getContent() + SEPARATOR))
+            .sum();
+
+        List<Block> blocks = mergeAdjacent(results);
+        blocks.sort(Comparator.comparingDouble(Block::getScore).reversed());
+
+        StringBuilder context = new StringBuilder(HEADER);
+        int usedTokens = estimateTokens(HEADER);
+        int included = 0;
+
+        for (Block block : blocks) {
+            String header = blockHeader(included + 1, block.getReference());
+            int fixedTokens = estimateTokens(header + SEPARATOR);
+            int remaining = tokenBudget - usedTokens - fixedTokens;
+            if (remaining <= 0) {
+                break;
+            }
+
+            String text = block.getText();
+            int textTokens = estimateTokens(text);
+            if (textTokens > remaining) {
+                if (remaining < MIN_PARTIAL_TOKENS) {
+                    continue;
+                }
+                text = truncateToTokens(text, remaining);
+                textTokens = estimateTokens(text);
+            }
+
+            context.append(header).append(text).append(SEPARATOR);
+            usedTokens += fixedTokens + textTokens;
+            included++;
+        }
+
+        int saved = Math.max(0, originalTokens - usedTokens);
+        log.debug("Context packed: {} results -> {} blocks, {} tokens (saved {})",
+            results.size(), included, usedTokens, saved);
+
+        return PackedContext.builder()
+            .text(context.toString())
+            .tokenCount(usedTokens)
+            .originalTokenCount(originalTokens)
+            .tokensSaved(saved)
+            .blockCount(included)
+            .build();
+    }
+
+    /**
+     * 같은 문서의 연속된 청크 병합 (오버랩 제거)
+     */
+    private List<Block> mergeAdjacent(List<SearchResult> results) {
+        Map<Object, List<SearchResult>> byDocument = results.stream()
+            .collect(Collectors.groupingBy(
+                r -> r.getDocumentId() != null ? r.getDocumentId() : r.getChunkId(),
+                LinkedHashMap::new,
+                Collectors.toList()));
+
+        List<Block> blocks = new ArrayList<>();
+        for (List<SearchResult> group : byDocument.values()) {
+            group.sort(Comparator.comparing(SearchResult::getChunkIndex,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+            Block current = null;
+            Integer lastIndex = null;
+            for (SearchResult result : group) {
+                Integer index = result.getChunkIndex();
+                if (current != null && index != null && lastIndex != null && index - lastIndex <= 1) {
+                    if (index > lastIndex) {
+                        current.append(result.getContent(), result.getScore(), maxOverlap());
+                    }
+                } else {
+                    current = new Block(result.getSourceReference(), result.getContent(), result.getScore());
+                    blocks.add(current);
+                }
+                lastIndex = index;
+            }
+        }
+        return blocks;
+    }
+
+    private int maxOverlap() {
+        // 파서는 공백 정리 후 오버랩을 붙이므로 약간의 여유를 둔다
+        return chunkOverlap * 2;
+    }
+
+    /**
+     * prev 의 접미사와 next 의 접두사가 일치하는 최대 길이 (KMP 실패 함수 이용)
+     */
+    static int overlapLength(String prev, String next, int maxOverlap) {
+        int limit = Math.min(maxOverlap, Math.min(prev.length(), next.length()));
+        if (limit < MIN_OVERLAP) {
+            return 0;
+        }
+
+        String pattern = next.substring(0, limit);
+        String tail = prev.substring(prev.length() - limit);
+        String combined = pattern + '\u0000' + tail;
+
+        int[] failure = new int[combined.length()];
+        for (int i = 1; i < combined.length(); i++) {
+            int k = failure[i - 1];
+            while (k > 0 && combined.charAt(i) != combined.charAt(k)) {
+                k = failure[k - 1];
+            }
+            if (combined.charAt(i) == combined.charAt(k)) {
+                k++;
+            }
+            failure[i] = k;
+        }
+
+        int overlap = failure[combined.length() - 1];
+        return overlap >= MIN_OVERLAP ? overlap : 0;
+    }
+
+    /**
+     * 토큰 수 추정 - 한글은 음절당 약 1토큰, 그 외는 약 4글자당 1토큰
+     */
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int hangul = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '가' && c <= '힣') {
+                hangul++;
+            } else {
+                other++;
+            }
+        }
+        return hangul + (other + 3) / 4;
+    }
+
+    private String truncateToTokens(String text, int maxTokens) {
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            if (estimateTokens(text.substring(0, mid)) + 1 <= maxTokens) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return text.substring(0, low) + "…";
+    }
+
+    private String blockHeader(int number, String reference) {
+        return String.format("[문서 %d] %s\n", number, reference);
+    }
+
+    /**
+     * 병합된 컨텍스트 블록
+     */
+    @lombok.Getter
+    private static class Block {
+        private final String reference;
+        private final StringBuilder content;
+        private double score;
+
+        Block(String reference, String content, double score) {
+            this.reference = reference;
+            this.content = new StringBuilder(content);
+            this.score = score;
+        }
+
+        void append(String next, double nextScore, int maxOverlap) {
+            int overlap = overlapLength(content.toString(), next, maxOverlap);
+            if (overlap == 0) {
+                content.append('\n');
+            }
+            content.append(next, overlap, next.length());
+            score = Math.max(score, nextScore);
+        }
+
+        String getText() {
+            return content.toString();
+        }
+    }
+
+    @lombok.Builder
+    @lombok.Getter
+    public static class PackedContext {
+        private String text;
+        private int tokenCount;
+        private int originalTokenCount;
+        private int tokensSaved;
+        private int blockCount;
+    }
+}
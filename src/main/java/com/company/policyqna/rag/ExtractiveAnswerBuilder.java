@@ -0,0 +1,266 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.ontology.OntologyService;
+import com.company.policyqna.ontology.OntologyService.RedirectResult;
+import com.company.policyqna.ontology.OntologyService.TermDefinition;
+import com.company.policyqna.rag.RagPipelineService.QnaResponse;
+import com.company.policyqna.rag.RagPipelineService.SourceInfo;
+import com.company.policyqna.rag.RagPipelineService.TermInfo;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * LLM 없이 만드는 추출형 답변
+ * - 용어 정의 질문 ("연차휴가가 뭐야?") -> 온톨로지 개념 정의
+ * - 리다이렉트 질문 -> 대상 조항 청크 본문
+ * - 응답 마감시간 초과 -> 상위 검색 결과 원문 (degraded)
+ * 신뢰도 기준을 넘을 때만 사용하고, 아니면 일반 LLM 생성 경로로 넘긴다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractiveAnswerBuilder {
+
+    // 긴 표현부터 제거해야 "뜻이 뭐야" 가 "뭐야" 보다 먼저 일치한다
+    private static final List<String> DEFINITION_SUFFIXES = List.of(
+            "무슨 뜻인가요", "무슨 뜻이에요", "무슨 뜻이야", "무엇인가요", "무엇입니까", "무엇이에요", "무엇이야",
+            "뜻이 뭔가요", "뜻이 뭐야", "의미가 뭐야", "정의가 뭐야", "뭐예요", "뭐에요", "뭔가요", "뭡니까",
+            "뭐야", "뭐임", "무엇", "이란", "뜻은", "의미는", "정의는", "란")
+        .stream()
+        .sorted(Comparator.comparingInt(String::length).reversed())
+        .toList();
+
+    private static final List<String> PARTICLES = List.of("이라는 게", "라는 게", "이라는", "라는", "은", "는", "이", "가", "의");
+
+    private static final Pattern ARTICLE_PATTERN = Pattern.compile("제\\s*\\d+\\s*조(?:\\s*의\\s*\\d+)?");
+
+    private static final int MAX_SUBJECT_LENGTH = 30;
+
+    private static final int DEGRADED_SNIPPET_LENGTH = 300;
+
+    private final OntologyService ontologyService;
+
+    @Value("${rag.fast-path.enabled:true}")
+    private boolean enabled;
+
+    // 개념명 일치 1.0, 동의어 0.9, 약어 0.8 (쿼리 확장 가중치와 동일)
+    @Value("${rag.fast-path.definition-min-confidence:0.8}")
+    private double definitionMinConfidence;
+
+    @Value("${rag.fast-path.redirect-min-score:0.5}")
+    private double redirectMinScore;
+
+    // 마감시간 초과 시 안내할 상위 검색 결과 수
+    @Value("${rag.answer.degraded-sources:3}")
+    private int degradedSources;
+
+    /**
+     * 용어 정의 질문이면 온톨로지 정의로 답변
+     */
+    public Optional<QnaResponse> definition(String question) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        for (String subject : definitionSubjects(question)) {
+            Optional<TermDefinition> found = ontologyService.resolveTermDefinition(subject);
+            if (found.isEmpty() || found.get().getDefinition() == null || found.get().getDefinition().isBlank()) {
+                continue;
+            }
+
+            TermDefinition definition = found.get();
+            double confidence = confidenceOf(definition.getMatchType());
+            if (confidence < definitionMinConfidence) {
+                log.debug("Definition fast path skipped for '{}' (confidence {})", subject, confidence);
+                return Optional.empty();
+            }
+
+            log.info("Definition fast path: '{}' -> {} ({})", question, definition.getTerm(), definition.getMatchType());
+            return Optional.of(QnaResponse.builder()
+                .question(question)
+                .answer(definitionAnswer(definition))
+                .sources(definition.getSourceReferences().stream()
+                    .map(reference -> SourceInfo.builder()
+                        .documentTitle(reference)
+                        .relevanceScore(confidence)
+                        .snippet(definition.getDefinition())
+                        .build())
+                    .collect(Collectors.toList()))
+                .relatedTerms(List.of(TermInfo.builder()
+                    .term(definition.getTerm())
+                    .definition(definition.getDefinition())
+                    .conceptType(definition.getConceptType().getKoreanName())
+                    .synonyms(definition.getSynonyms())
+                    .build()))
+                .expandedTerms(List.of(definition.getTerm()))
+                .llmSkipped(true)
+                .build());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 리다이렉트 대상 조항이 검색 결과 상위에 있으면 조항 본문으로 답변
+     */
+    public Optional<QnaResponse> redirect(
+            String question,
+            RedirectResult redirect,
+            List<SearchResult> results,
+            List<SourceInfo> sources) {
+
+        if (!enabled || results.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String target = redirect.getTargetReference();
+        Matcher matcher = ARTICLE_PATTERN.matcher(target);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        String article = compact(matcher.group());
+        String documentName = compact(target.substring(0, matcher.start()));
+
+        List<SearchResult> articleChunks = results.stream()
+            .filter(r -> r.getArticleNumber() != null && compact(r.getArticleNumber()).equals(article))
+            .filter(r -> documentName.isEmpty() || matchesDocument(r, documentName))
+            .collect(Collectors.toList());
+        if (articleChunks.isEmpty()) {
+            return Optional.empty();
+        }
+
+        double bestScore = articleChunks.stream().mapToDouble(SearchResult::getScore).max().orElse(0.0);
+        if (bestScore < redirectMinScore) {
+            log.debug("Redirect fast path skipped for '{}' (score {})", target, bestScore);
+            return Optional.empty();
+        }
+
+        SearchResult first = articleChunks.get(0);
+        StringBuilder answer = new StringBuilder();
+        answer.append("문의하신 내용은 ").append(first.getSourceReference()).append("에 규정되어 있습니다.");
+        if (redirect.getDescription() != null && !redirect.getDescription().isBlank()) {
+            answer.append(" (").append(redirect.getDescription()).append(")");
+        }
+        answer.append("\n\n").append(articleText(articleChunks));
+        answer.append("\n\n※ 해당 조항 원문을 그대로 안내해 드렸습니다. 자세한 적용 기준은 담당 부서에 확인해 주세요.");
+
+        log.info("Redirect fast path: '{}' -> {}", question, target);
+        return Optional.of(QnaResponse.builder()
+            .question(question)
+            .answer(answer.toString())
+            .sources(sources)
+            .redirectInfo(redirect)
+            .llmSkipped(true)
+            .build());
+    }
+
+    /**
+     * LLM 답변이 마감시간 안에 끝나지 않았을 때 상위 검색 결과 원문으로 만드는 대체 답변
+     */
+    public String degradedAnswer(List<SearchResult> results) {
+        StringBuilder answer = new StringBuilder("답변 생성이 지연되어 관련 규정 원문을 우선 안내해 드립니다.");
+
+        int number = 1;
+        for (SearchResult result : results.stream().limit(degradedSources).toList()) {
+            String content = result.getContent().trim();
+            if (content.length() > DEGRADED_SNIPPET_LENGTH) {
+                content = content.substring(0, DEGRADED_SNIPPET_LENGTH) + "...";
+            }
+            answer.append("\n\n").append(number++).append(". ").append(result.getSourceReference())
+                  .append("\n").append(content);
+        }
+
+        answer.append("\n\n※ 잠시 후 다시 질문하시면 요약된 답변을 받으실 수 있습니다.");
+        return answer.toString();
+    }
+
+    /**
+     * 정의 질문 표현을 떼어낸 주제어 후보 (조사 포함 / 제외 순)
+     */
+    static List<String> definitionSubjects(String question) {
+        String text = question.trim().replaceAll("[?？.!\\s]+$", "");
+
+        String stripped = null;
+        for (String suffix : DEFINITION_SUFFIXES) {
+            if (text.endsWith(suffix)) {
+                stripped = text.substring(0, text.length() - suffix.length()).trim();
+                break;
+            }
+        }
+        if (stripped == null || stripped.isEmpty() || stripped.length() > MAX_SUBJECT_LENGTH) {
+            return List.of();
+        }
+
+        List<String> subjects = new ArrayList<>();
+        subjects.add(stripped);
+        for (String particle : PARTICLES) {
+            if (stripped.endsWith(particle) && stripped.length() > particle.length()) {
+                subjects.add(stripped.substring(0, stripped.length() - particle.length()).trim());
+                break;
+            }
+        }
+        return subjects;
+    }
+
+    private String definitionAnswer(TermDefinition definition) {
+        StringBuilder answer = new StringBuilder();
+        answer.append(definition.getTerm()).append("(이)란 ").append(definition.getDefinition().trim());
+
+        if (definition.getSynonyms() != null && !definition.getSynonyms().isEmpty()) {
+            answer.append("\n\n같은 뜻으로 쓰는 용어: ").append(String.join(", ", definition.getSynonyms()));
+        }
+        if (!definition.getSourceReferences().isEmpty()) {
+            answer.append("\n\n출처: ").append(String.join(", ", definition.getSourceReferences()));
+        }
+        answer.append("\n\n※ 등록된 용어 정의로 안내해 드렸습니다. 세부 기준은 관련 규정을 확인해 주세요.");
+        return answer.toString();
+    }
+
+    /**
+     * 같은 조항의 청크를 순서대로 이어 붙임 (오버랩 제거)
+     */
+    private String articleText(List<SearchResult> chunks) {
+        List<SearchResult> ordered = chunks.stream()
+            .filter(c -> Objects.equals(c.getDocumentId(), chunks.get(0).getDocumentId()))
+            .sorted(Comparator.comparing(SearchResult::getChunkIndex, Comparator.nullsLast(Comparator.naturalOrder())))
+            .collect(Collectors.toList());
+
+        StringBuilder text = new StringBuilder();
+        for (SearchResult chunk : ordered) {
+            String content = chunk.getContent();
+            if (text.length() == 0) {
+                text.append(content);
+                continue;
+            }
+            int overlap = ContextPacker.overlapLength(text.toString(), content, content.length());
+            text.append(overlap == 0 ? "\n" : "").append(content, overlap, content.length());
+        }
+        return text.toString();
+    }
+
+    private boolean matchesDocument(SearchResult result, String documentName) {
+        String title = result.getDocumentTitle() != null ? compact(result.getDocumentTitle()) : "";
+        String code = result.getDocumentCode() != null ? compact(result.getDocumentCode()) : "";
+        return (!title.isEmpty() && (title.contains(documentName) || documentName.contains(title)))
+            || (!code.isEmpty() && code.equalsIgnoreCase(documentName));
+    }
+
+    private double confidenceOf(TermDefinition.MatchType matchType) {
+        return switch (matchType) {
+            case NAME -> 1.0;
+            case SYNONYM -> 0.9;
+            case ABBREVIATION -> 0.8;
+        };
+    }
+
+    private static String compact(String text) {
+        return text.replaceAll("\\s+", "");
+    }
+}
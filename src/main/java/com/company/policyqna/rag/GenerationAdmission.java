@@ -0,0 +1,220 @@
+package com.company.policyqna.rag;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LLM 생성 요청 승인 제어
+ * - 동시 생성 수 제한 (Ollama CPU 노드는 사실상 1건씩 처리)
+ * - 우선순위 대기열: 대화형(INTERACTIVE) 요청이 일괄(BATCH) 요청보다 먼저 처리
+ * - 대기열이 가득 차거나 대기 시간을 넘기면 즉시 거절 (429/503 + Retry-After)
+ * - 호출 측이 준 더 짧은 대기 한도(응답 마감시간)가 먼저 지나면 DEADLINE 으로 거절 (호출 측에서 대체 답변)
+ */
+@Component
+@Slf4j
+public class GenerationAdmission implements MeterBinder {
+
+    @Value("${rag.admission.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${rag.admission.interactive.queue-capacity:16}")
+    private int interactiveQueueCapacity;
+
+    @Value("${rag.admission.interactive.max-wait-ms:30000}")
+    private long interactiveMaxWaitMs;
+
+    @Value("${rag.admission.batch.queue-capacity:64}")
+    private int batchQueueCapacity;
+
+    @Value("${rag.admission.batch.max-wait-ms:600000}")
+    private long batchMaxWaitMs;
+
+    @Value("${rag.admission.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> interactiveQueue = new ArrayDeque<>();
+    private final Deque<Waiter> batchQueue = new ArrayDeque<>();
+    private int active;
+
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+    private final AtomicLong rejectedDeadline = new AtomicLong();
+
+    /**
+     * 생성 슬롯 획득 - 반환된 Permit 을 close 해야 슬롯이 반납된다
+     */
+    public Permit acquire(Priority priority) {
+        return acquire(priority, maxWaitFor(priority));
+    }
+
+    /**
+     * 대기 시간을 더 짧게 제한해 슬롯 획득 (요청 마감시간이 남은 만큼만 대기)
+     * - 설정된 대기 한도가 먼저 지나면 WAIT_TIMEOUT, maxWaitMs 가 먼저 지나면 DEADLINE
+     */
+    public Permit acquire(Priority priority, long maxWaitMs) {
+        lock.lock();
+        try {
+            if (active < maxConcurrent && interactiveQueue.isEmpty()
+                    && (priority == Priority.INTERACTIVE || batchQueue.isEmpty())) {
+                active++;
+                return new Permit();
+            }
+
+            Deque<Waiter> queue = queueFor(priority);
+            if (queue.size() >= capacityFor(priority)) {
+                rejectedQueueFull.incrementAndGet();
+                log.warn("Generation rejected ({} queue full: {})", priority, queue.size());
+                throw new GenerationRejectedException(GenerationRejectedException.Reason.QUEUE_FULL, retryAfterSeconds);
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+
+            boolean callerLimited = maxWaitMs < maxWaitFor(priority);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(Math.min(maxWaitMs, maxWaitFor(priority)));
+            while (!waiter.granted) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    if (callerLimited) {
+                        rejectedDeadline.incrementAndGet();
+                        log.warn("Generation rejected ({} deadline reached while waiting)", priority);
+                        throw new GenerationRejectedException(GenerationRejectedException.Reason.DEADLINE, retryAfterSeconds);
+                    }
+                    rejectedTimeout.incrementAndGet();
+                    log.warn("Generation rejected ({} wait timeout)", priority);
+                    throw new GenerationRejectedException(GenerationRejectedException.Reason.WAIT_TIMEOUT, retryAfterSeconds);
+                }
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    queue.remove(waiter);
+                    if (waiter.granted) {
+                        releaseLocked();
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while waiting for generation slot");
+                }
+            }
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 슬롯 반납 후 대기자에게 전달 (대화형 우선)
+     */
+    private void releaseLocked() {
+        active--;
+        Waiter next = interactiveQueue.pollFirst();
+        if (next == null) {
+            next = batchQueue.pollFirst();
+        }
+        if (next != null) {
+            next.granted = true;
+            active++;
+            next.condition.signal();
+        }
+    }
+
+    private Deque<Waiter> queueFor(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveQueue : batchQueue;
+    }
+
+    private int capacityFor(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveQueueCapacity : batchQueueCapacity;
+    }
+
+    private long maxWaitFor(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveMaxWaitMs : batchMaxWaitMs;
+    }
+
+    private int sizeOf(Deque<Waiter> queue) {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rag.admission.active", this, admission -> {
+                admission.lock.lock();
+                try {
+                    return admission.active;
+                } finally {
+                    admission.lock.unlock();
+                }
+            })
+            .register(registry);
+        Gauge.builder("rag.admission.queued", this, admission -> admission.sizeOf(admission.interactiveQueue))
+            .tag("priority", "interactive")
+            .register(registry);
+        Gauge.builder("rag.admission.queued", this, admission -> admission.sizeOf(admission.batchQueue))
+            .tag("priority", "batch")
+            .register(registry);
+        FunctionCounter.builder("rag.admission.rejected", rejectedQueueFull, AtomicLong::get)
+            .tag("reason", "queue_full")
+            .register(registry);
+        FunctionCounter.builder("rag.admission.rejected", rejectedTimeout, AtomicLong::get)
+            .tag("reason", "wait_timeout")
+            .register(registry);
+        FunctionCounter.builder("rag.admission.rejected", rejectedDeadline, AtomicLong::get)
+            .tag("reason", "deadline")
+            .register(registry);
+    }
+
+    public enum Priority {
+        INTERACTIVE,
+        BATCH
+    }
+
+    private static class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * 생성 슬롯 (한 번만 반납)
+     */
+    public class Permit implements AutoCloseable {
+        private boolean released;
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release();
+            }
+        }
+    }
+}
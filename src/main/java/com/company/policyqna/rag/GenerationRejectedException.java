@@ -0,0 +1,35 @@
+package com.company.policyqna.rag;
+
+import lombok.Getter;
+
+/**
+ * LLM 생성 요청 거절 (대기열 초과, 대기 시간 초과 또는 요청 마감시간 도달)
+ */
+@Getter
+public class GenerationRejectedException extends RuntimeException {
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public GenerationRejectedException(Reason reason, long retryAfterSeconds) {
+        super(reason.getMessage());
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public enum Reason {
+        QUEUE_FULL("답변 생성 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요."),
+        WAIT_TIMEOUT("답변 생성 대기 시간이 초과되었습니다. 잠시 후 다시 시도해 주세요."),
+        DEADLINE("응답 마감시간 안에 답변 생성을 시작하지 못했습니다. 잠시 후 다시 시도해 주세요.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.vector.VectorStoreService;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * MMR(Maximal Marginal Relevance) 선택
+ * - 재순위된 후보 풀에서 k 개를 하나씩 고르며, 이미 고른 청크와 비슷한 청크는 감점
+ *   점수 = lambda * 관련도 - (1 - lambda) * max(이미 고른 청크와의 코사인 유사도)
+ * - 관련도는 후보 점수를 0~1 로 정규화한 값 (RRF/재순위 점수 척도와 무관하게 동작)
+ * - 청크 임베딩은 벡터 스토어에 저장된 값을 ID 로 읽어 사용 (임베딩 재계산 없음)
+ * - 임베딩이 없는 후보(예전 키워드 검색 결과 등)는 감점 없이 관련도만으로 경쟁
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MmrSelector {
+
+    private final VectorStoreService vectorStoreService;
+
+    @Value("${rag.mmr.enabled:true}")
+    private boolean enabled;
+
+    // 1 이면 관련도만 (MMR 미적용과 같음), 0 에 가까울수록 다양성 우선
+    @Value("${rag.mmr.lambda:0.7}")
+    private double lambda;
+
+    /**
+     * 관련도 내림차순 후보에서 k 개 선택 (선택 순서대로 반환)
+     */
+    public List<SearchResult> select(List<SearchResult> ranked, int k) {
+        if (!enabled || lambda >= 1.0 || ranked.size() <= k) {
+            return ranked.stream().limit(k).collect(Collectors.toList());
+        }
+
+        Set<String> vectorIds = ranked.stream()
+            .map(SearchResult::getVectorId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<String, float[]> embeddings = vectorStoreService.embeddingsOf(vectorIds);
+
+        int n = ranked.size();
+        double[] relevance = normalizedScores(ranked);
+        float[][] vectors = new float[n][];
+        for (int i = 0; i < n; i++) {
+            String vectorId = ranked.get(i).getVectorId();
+            vectors[i] = vectorId != null ? unit(embeddings.get(vectorId)) : null;
+        }
+
+        // redundancy[i] = 후보 i 와 이미 고른 청크들 간 최대 유사도
+        double[] redundancy = new double[n];
+        boolean[] selected = new boolean[n];
+        List<SearchResult> result = new ArrayList<>(k);
+        for (int round = 0; round < k; round++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (selected[i]) {
+                    continue;
+                }
+                double score = lambda * relevance[i] - (1 - lambda) * redundancy[i];
+                if (score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+
+            selected[best] = true;
+            result.add(ranked.get(best));
+            if (vectors[best] == null) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                if (!selected[i] && vectors[i] != null) {
+                    redundancy[i] = Math.max(redundancy[i], dot(vectors[i], vectors[best]));
+                }
+            }
+        }
+
+        log.debug("MMR selected {} of {} candidates ({} with embeddings, lambda {})",
+            result.size(), n, embeddings.size(), lambda);
+        return result;
+    }
+
+    private static double[] normalizedScores(List<SearchResult> ranked) {
+        double max = ranked.stream().mapToDouble(SearchResult::getScore).max().orElse(0);
+        double min = ranked.stream().mapToDouble(SearchResult::getScore).min().orElse(0);
+        double range = max - min;
+
+        double[] scores = new double[ranked.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = range > 0 ? (ranked.get(i).getScore() - min) / range : 1.0;
+        }
+        return scores;
+    }
+
+    private static float[] unit(float[] vector) {
+        if (vector == null) {
+            return null;
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float inverse = (float) (1.0 / Math.sqrt(norm));
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = vector[i] * inverse;
+        }
+        return unit;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.ontology.OntologyService.ConceptTerm;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 온톨로지 기반 재순위
+ * - 넓게 가져온 후보 청크를 질문에 일치한 개념(및 관계로 연결된 개념)의 포함 여부로 재채점
+ * - 개념 점수 = 청크에 등장한 개념 가중치 합 / 전체 개념 가중치 합 (0~1)
+ *   가중치는 확장 단계에서 관계 타입별로 정해진 값 (직접 일치 1.0, IS_A/PART_OF 0.8배 등)
+ * - 최종 점수 = (1 - boostWeight) * 검색 점수 + boostWeight * 개념 점수
+ */
+@Component
+@Slf4j
+public class OntologyReranker {
+
+    // 너무 짧은 표현은 우연히 포함되는 경우가 많아 제외
+    private static final int MIN_SURFACE_LENGTH = 2;
+
+    public List<SearchResult> rerank(
+            List<SearchResult> candidates,
+            List<ConceptTerm> conceptTerms,
+            double boostWeight,
+            int topK) {
+
+        if (conceptTerms == null || conceptTerms.isEmpty() || boostWeight <= 0) {
+            return candidates.stream().limit(topK).collect(Collectors.toList());
+        }
+
+        List<MatchableConcept> concepts = conceptTerms.stream()
+            .map(MatchableConcept::of)
+            .filter(concept -> !concept.surfaceForms().isEmpty())
+            .collect(Collectors.toList());
+        double totalWeight = concepts.stream().mapToDouble(MatchableConcept::weight).sum();
+        if (totalWeight <= 0) {
+            return candidates.stream().limit(topK).collect(Collectors.toList());
+        }
+
+        List<SearchResult> reranked = candidates.stream()
+            .map(candidate -> {
+                double conceptScore = conceptScore(candidate, concepts) / totalWeight;
+                double score = (1 - boostWeight) * candidate.getScore() + boostWeight * conceptScore;
+                return candidate.toBuilder().score(score).build();
+            })
+            .sorted(Comparator.comparingDouble(SearchResult::getScore).reversed())
+            .limit(topK)
+            .collect(Collectors.toList());
+
+        log.debug("Reranked {} candidates with {} concepts -> top {}", candidates.size(), concepts.size(), reranked.size());
+        return reranked;
+    }
+
+    private double conceptScore(SearchResult candidate, List<MatchableConcept> concepts) {
+        String text = searchableText(candidate);
+        double score = 0.0;
+        for (MatchableConcept concept : concepts) {
+            for (String surface : concept.surfaceForms()) {
+                if (text.contains(surface)) {
+                    score += concept.weight();
+                    break;
+                }
+            }
+        }
+        return score;
+    }
+
+    private String searchableText(SearchResult candidate) {
+        StringBuilder text = new StringBuilder();
+        if (candidate.getSectionTitle() != null) text.append(candidate.getSectionTitle()).append('\n');
+        if (candidate.getArticleNumber() != null) text.append(candidate.getArticleNumber()).append('\n');
+        if (candidate.getContent() != null) text.append(candidate.getContent());
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private record MatchableConcept(List<String> surfaceForms, double weight) {
+
+        static MatchableConcept of(ConceptTerm term) {
+            List<String> forms = term.getSurfaceForms() == null ? List.of() : term.getSurfaceForms().stream()
+                .filter(Objects::nonNull)
+                .map(form -> form.trim().toLowerCase(Locale.ROOT))
+                .filter(form -> form.length() >= MIN_SURFACE_LENGTH)
+                .distinct()
+                .collect(Collectors.toList());
+            return new MatchableConcept(forms, term.getWeight());
+        }
+    }
+}
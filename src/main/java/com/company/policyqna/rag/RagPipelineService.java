@@ -1,9 +1,15 @@
 package com.company.policyqna.rag;
 
+import com.company.policyqna.lexical.LexicalIndex;
+import com.company.policyqna.lexical.ReciprocalRankFusion;
+import com.company.policyqna.metrics.PipelineMetrics;
 import com.company.policyqna.ontology.OntologyService;
 import com.company.policyqna.ontology.OntologyService.QueryExpansion;
 import com.company.policyqna.ontology.OntologyService.RedirectResult;
 import com.company.policyqna.ontology.OntologyService.TermDefinition;
+import com.company.policyqna.rag.ContextPacker.PackedContext;
+import com.company.policyqna.vector.EmbeddingCache;
+import com.company.policyqna.vector.SearchFilter;
 import com.company.policyqna.vector.VectorStoreService;
 import com.company.policyqna.vector.VectorStoreService.SearchResult;
 import lombok.RequiredArgsConstructor;
@@ -12,11 +18,22 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -34,7 +51,18 @@ public class RagPipelineService {
 
     private final VectorStoreService vectorStoreService;
     private final OntologyService ontologyService;
-    private final ChatClient.Builder chatClientBuilder;
+    private final ChatClient chatClient;
+    private final SemanticAnswerCache answerCache;
+    private final ContextPacker contextPacker;
+    private final PipelineMetrics metrics;
+    private final GenerationAdmission admission;
+    private final LexicalIndex lexicalIndex;
+    private final OntologyReranker ontologyReranker;
+    private final MmrSelector mmrSelector;
+    private final ExtractiveAnswerBuilder extractiveAnswerBuilder;
+
+    @Qualifier("pipelineExecutor")
+    private final ExecutorService pipelineExecutor;
 
     @Value("${rag.top-k:5}")
     private int topK;
@@ -45,6 +73,44 @@ public class RagPipelineService {
     @Value("${rag.ontology-boost-weight:0.3}")
     private double ontologyBoostWeight;
 
+    // 재순위 전 후보 수 = top-k * candidate-multiplier
+    @Value("${rag.rerank.candidate-multiplier:4}")
+    private int candidateMultiplier;
+
+    @Value("${rag.lexical.enabled:true}")
+    private boolean useLexicalSearch;
+
+    @Value("${rag.lexical.top-k:10}")
+    private int lexicalTopK;
+
+    @Value("${rag.lexical.rrf-k:60}")
+    private int rrfK;
+
+    // 단계별 마감시간 (파이프라인 시작 기준)
+    @Value("${rag.pipeline.timeout.definition-ms:1000}")
+    private long definitionTimeoutMs;
+
+    @Value("${rag.pipeline.timeout.redirect-ms:1000}")
+    private long redirectTimeoutMs;
+
+    @Value("${rag.pipeline.timeout.expansion-ms:1500}")
+    private long expansionTimeoutMs;
+
+    @Value("${rag.pipeline.timeout.search-ms:5000}")
+    private long searchTimeoutMs;
+
+    @Value("${rag.pipeline.timeout.terms-ms:2000}")
+    private long termsTimeoutMs;
+
+    // 대화형 요청 전체 응답 마감시간 (0 이하이면 제한 없음, 일괄 처리에는 적용하지 않음)
+    @Value("${rag.answer.deadline-ms:20000}")
+    private long answerDeadlineMs;
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // 동일 질문 동시 요청 병합
+    private final SingleFlight<String, QnaResponse> inFlightQuestions = new SingleFlight<>();
+
     private static final String SYSTEM_PROMPT = """
         당신은 사내 정책 및 업무 매뉴얼 전문 상담 AI입니다.
 
@@ -68,112 +134,576 @@ public class RagPipelineService {
      * 질문에 대한 답변 생성
      */
     public QnaResponse processQuestion(String question) {
-        log.info("Processing question: {}", question);
+        return processQuestion(question, SearchFilter.none());
+    }
+
+    /**
+     * 검색 범위(부서/문서 유형)를 제한한 답변 생성
+     */
+    public QnaResponse processQuestion(String question, SearchFilter filter) {
+        log.info("Processing question: {} (filter: {})", question, filter);
+
+        // 같은 질문(같은 검색 범위)이 처리 중이면 그 결과를 기다린다
+        SingleFlight.Result<QnaResponse> result = inFlightQuestions.execute(
+            filter.cacheKey() + "\n" + EmbeddingCache.normalize(question),
+            () -> answerQuestion(question, filter));
+
+        if (result.shared()) {
+            metrics.count("rag.pipeline.coalesced");
+            log.debug("Question coalesced with in-flight request: {}", question);
+            return result.value().toBuilder().question(question).build();
+        }
+        return result.value();
+    }
+
+    /**
+     * 기동 워밍업용 답변 생성
+     * - 답변 캐시/동일 질문 병합을 거치지 않고 결과도 캐시에 넣지 않음 (합성 질문 답변이 실제 요청에 재사용되지 않도록)
+     * - 대화형 응답 마감시간 대신 워밍업 마감시간 적용 (readiness 지연 상한)
+     */
+    public QnaResponse warmupQuestion(String question, long deadlineMs) {
+        return complete(retrieve(question, SearchFilter.none()), GenerationAdmission.Priority.INTERACTIVE,
+            deadlineAfter(deadlineMs));
+    }
+
+    private QnaResponse answerQuestion(String question, SearchFilter filter) {
+        long deadline = answerDeadline();
+
+        // 0. 시맨틱 캐시 확인
+        SemanticAnswerCache.Lookup cached = metrics.time(PipelineMetrics.RAG_STAGE, "cache",
+            () -> answerCache.lookup(question, filter.cacheKey()));
+        if (cached.isHit()) {
+            return cached.getResponse().toBuilder().question(question).build();
+        }
+
+        QnaResponse response = complete(retrieve(question, filter), GenerationAdmission.Priority.INTERACTIVE, deadline);
+        if (!response.isDegraded()) {
+            answerCache.put(cached, response);
+        }
+        return response;
+    }
+
+    /**
+     * 검색 단계 결과로 답변 완성 (필요 시 LLM 답변 생성, 마감시간 없음)
+     */
+    QnaResponse complete(Retrieval retrieval, GenerationAdmission.Priority priority) {
+        return complete(retrieval, priority, NO_DEADLINE);
+    }
+
+    /**
+     * 마감시간 안에 LLM 답변을 끝내지 못하면 검색 결과 원문으로 대체 답변
+     */
+    private QnaResponse complete(Retrieval retrieval, GenerationAdmission.Priority priority, long deadline) {
+        if (retrieval.getEarlyResponse() != null) {
+            return retrieval.getEarlyResponse();
+        }
+
+        // LLM 답변 생성
+        Optional<String> answer;
+        try {
+            answer = generateAnswer(
+                retrieval.getQuestion(), retrieval.getContext().getText(), retrieval.getRelatedTerms(),
+                priority, deadline);
+        } catch (GenerationRejectedException e) {
+            // 대기열 초과(429)/설정된 대기 한도 초과(503)는 그대로, 응답 마감시간에 걸린 경우만 대체 답변
+            if (e.getReason() != GenerationRejectedException.Reason.DEADLINE) {
+                throw e;
+            }
+            return degradedResponse(retrieval, "admission");
+        }
+
+        return answer
+            .map(text -> toResponse(retrieval, text))
+            .orElseGet(() -> degradedResponse(retrieval, "deadline"));
+    }
+
+    /**
+     * 스트리밍 답변 생성 (SSE)
+     * - 검색 완료 즉시 출처 이벤트 전송
+     * - LLM 토큰을 생성되는 대로 전송
+     * - 마지막에 관련 용어/점수를 포함한 완료 이벤트 전송
+     */
+    public Flux<StreamEvent> streamQuestion(String question, SearchFilter filter) {
+        log.info("Streaming question: {} (filter: {})", question, filter);
+        long deadline = answerDeadline();
+
+        return Mono.fromCallable(() -> metrics.time(PipelineMetrics.RAG_STAGE, "cache",
+                () -> answerCache.lookup(question, filter.cacheKey())))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapMany(cached -> {
+                if (cached.isHit()) {
+                    QnaResponse hit = cached.getResponse().toBuilder().question(question).build();
+                    return Flux.just(
+                        StreamEvent.sources(hit.getSources()),
+                        StreamEvent.token(hit.getAnswer()),
+                        StreamEvent.done(hit)
+                    );
+                }
+                return streamRetrieved(cached, retrieve(question, filter), deadline);
+            })
+            .onErrorResume(GenerationRejectedException.class, e -> {
+                log.warn("Streaming rejected for question: {} ({})", question, e.getReason());
+                return Flux.just(StreamEvent.error(e.getMessage()));
+            })
+            .onErrorResume(e -> {
+                log.error("Streaming failed for question: {}", question, e);
+                return Flux.just(StreamEvent.error("답변 생성 중 오류가 발생했습니다."));
+            });
+    }
+
+    /**
+     * 검색 결과를 바탕으로 출처 -> 토큰 -> 완료 이벤트 스트림 구성
+     */
+    private Flux<StreamEvent> streamRetrieved(SemanticAnswerCache.Lookup cached, Retrieval retrieval, long deadline) {
+        if (retrieval.getEarlyResponse() != null) {
+            QnaResponse early = retrieval.getEarlyResponse();
+            answerCache.put(cached, early);
+            return Flux.just(
+                StreamEvent.sources(early.getSources()),
+                StreamEvent.token(early.getAnswer()),
+                StreamEvent.done(early)
+            );
+        }
+
+        Flux<StreamEvent> generation = buildPrompt(
+                retrieval.getQuestion(), retrieval.getContext().getText(), retrieval.getRelatedTerms())
+            .stream()
+            .chatResponse()
+            .doOnNext(this::recordUsage)
+            .map(this::contentOf)
+            .filter(token -> !token.isEmpty())
+            .map(StreamEvent::token);
+        Flux<StreamEvent> timed = metrics.timeFlux(PipelineMetrics.RAG_STAGE, "generation", generation);
+
+        // 생성 슬롯은 스트림이 끝나거나 취소될 때 반납 (대기 중 취소되어도 획득 직후 반납)
+        Flux<StreamEvent> tokens = Flux.using(
+                () -> acquireSlot(GenerationAdmission.Priority.INTERACTIVE, remainingMillis(deadline)),
+                permit -> timed,
+                GenerationAdmission.Permit::close)
+            .subscribeOn(Schedulers.boundedElastic());
+
+        // 마감시간이 지나면 생성을 취소하고 검색 결과 원문을 이어서 전송
+        StringBuilder answer = new StringBuilder();
+        AtomicReference<QnaResponse> degraded = new AtomicReference<>();
+        if (deadline != NO_DEADLINE) {
+            Mono<Long> expiry = Mono.defer(() -> Mono.delay(Duration.ofMillis(remainingMillis(deadline))));
+            tokens = tokens
+                .timeout(expiry, token -> expiry,
+                    Flux.defer(() -> degradedTokens(retrieval, answer, "deadline", degraded)))
+                .onErrorResume(
+                    e -> e instanceof GenerationRejectedException rejected
+                        && rejected.getReason() == GenerationRejectedException.Reason.DEADLINE,
+                    e -> degradedTokens(retrieval, answer, "admission", degraded));
+        }
+        // 실제로 전송한 토큰만 모아 완료 이벤트 답변 구성 (마감시간 초과 시 부분 답변 + 대체 답변)
+        tokens = tokens.doOnNext(event -> answer.append((String) event.getData()));
+
+        return Flux.concat(
+            Mono.just(StreamEvent.sources(retrieval.getSources())),
+            tokens,
+            Mono.fromSupplier(() -> {
+                if (degraded.get() != null) {
+                    return StreamEvent.done(degraded.get().toBuilder().answer(answer.toString()).build());
+                }
+                QnaResponse response = toResponse(retrieval, answer.toString());
+                answerCache.put(cached, response);
+                return StreamEvent.done(response);
+            })
+        );
+    }
+
+    /**
+     * 대체 답변 토큰 (앞서 전송한 부분 답변이 있으면 줄을 띄워 이어 붙임)
+     */
+    private Flux<StreamEvent> degradedTokens(
+            Retrieval retrieval, CharSequence streamed, String reason, AtomicReference<QnaResponse> degraded) {
+        QnaResponse response = degradedResponse(retrieval, reason);
+        degraded.set(response);
+        String separator = streamed.length() > 0 ? "\n\n" : "";
+        return Flux.just(StreamEvent.token(separator + response.getAnswer()));
+    }
 
-        // 1. 리다이렉트 규칙 확인
-        Optional<RedirectResult> redirect = ontologyService.checkRedirect(question);
+    /**
+     * 검색 단계 - 리다이렉트 확인, 쿼리 확장, 벡터 검색, 컨텍스트 구성
+     * 답변을 바로 돌려줘야 하는 경우 earlyResponse 가 채워진다.
+     *
+     * 단계 의존 관계:
+     *   definition ───────────────────┐
+     *   redirect ─────────────────────┤
+     *   lexical ──────────────────────┤
+     *   expansion ─┬─ search ─ rerank ┼─ context
+     *              └─ term definitions┘
+     * 리다이렉트 확인과 검색/용어 조회는 동시에 진행하고,
+     * 용어 정의 질문이거나 리다이렉트 규칙이 일치하면 진행 중인 단계를 취소한다.
+     */
+    private Retrieval retrieve(String question, SearchFilter filter) {
+        // 1. 용어 정의 질문 확인 / 리다이렉트 규칙 확인 / 온톨로지 기반 쿼리 확장 (동시 시작)
+        CompletableFuture<Optional<QnaResponse>> definitionStage =
+            stage("definition", definitionTimeoutMs, () -> extractiveAnswerBuilder.definition(question));
+
+        CompletableFuture<Optional<RedirectResult>> redirectStage =
+            stage("redirect", redirectTimeoutMs, () -> ontologyService.checkRedirect(question));
+
+        CompletableFuture<QueryExpansion> expansionStage =
+            stage("expansion", expansionTimeoutMs, () -> ontologyService.expandQuery(question))
+                .exceptionally(e -> {
+                    log.warn("Stage 'expansion' failed ({}), searching without expansion", unwrap(e).toString());
+                    return fallbackExpansion(question);
+                });
+
+        CompletableFuture<List<SearchResult>> lexicalStage =
+            stage("lexical", searchTimeoutMs, () -> lexicalSearch(question, filter));
+
+        // 2. 벡터 검색 / 관련 용어 정의 수집 (확장 완료 후 병렬)
+        CompletableFuture<List<SearchResult>> searchStage = stageAfter(expansionStage, "search", searchTimeoutMs,
+            expansion -> search(question, expansion, filter));
+
+        CompletableFuture<List<TermInfo>> termsStage = stageAfter(expansionStage, "terms", termsTimeoutMs,
+            expansion -> extractRelatedTerms(question, expansion));
+
+        // 3. 용어 정의로 바로 답할 수 있으면 LLM 없이 반환
+        Optional<QnaResponse> definition = await(definitionStage, "definition", Optional::empty);
+        if (definition.isPresent()) {
+            cancel(redirectStage, searchStage, termsStage, lexicalStage);
+            metrics.count("rag.pipeline.fast_path", "type", "definition");
+            return Retrieval.builder().earlyResponse(definition.get()).build();
+        }
+
+        // 4. 리다이렉트 규칙이 일치하면 진행 중인 검색 취소
+        Optional<RedirectResult> redirect = await(redirectStage, "redirect", Optional::empty);
         if (redirect.isPresent()) {
             log.info("Redirect rule matched: {}", redirect.get().getRuleName());
+            cancel(searchStage, termsStage, lexicalStage);
             // 리다이렉트된 참조로 직접 검색
-            return processWithRedirect(question, redirect.get());
+            return retrieveWithRedirect(question, redirect.get(), filter);
         }
 
-        // 2. 온톨로지 기반 쿼리 확장
-        QueryExpansion expansion = ontologyService.expandQuery(question);
+        QueryExpansion expansion = expansionStage.join();
         log.debug("Query expanded: {} terms", expansion.getExpandedTerms().size());
 
-        // 3. 벡터 검색 수행
-        List<SearchResult> searchResults;
-        if (useOntologyBoost && !expansion.getExpandedTerms().isEmpty()) {
-            searchResults = vectorStoreService.searchWithExpansion(
-                expansion.getExpandedTerms(),
-                expansion.getTermWeights(),
-                topK
-            );
-        } else {
-            searchResults = vectorStoreService.search(question, topK);
-        }
+        List<SearchResult> candidates = fuse(
+            await(searchStage, "search", null),
+            await(lexicalStage, "lexical", Collections::emptyList));
+        List<SearchResult> searchResults = rerank(expansion, candidates);
 
-        // 4. 검색 결과가 없는 경우
+        // 5. 검색 결과가 없는 경우
         if (searchResults.isEmpty()) {
-            return QnaResponse.builder()
+            cancel(termsStage);
+            return notFoundRetrieval(question);
+        }
+
+        // 6. 컨텍스트 구성 / 출처 정보 추출
+        return expandedRetrieval(question, expansion, searchResults,
+            await(termsStage, "terms", Collections::emptyList));
+    }
+
+    /**
+     * 이미 수행한 검색 결과로 검색 단계 결과 구성 (일괄 처리용)
+     */
+    Retrieval toRetrieval(String question, RedirectResult redirect, QueryExpansion expansion, List<SearchResult> results) {
+        Optional<QnaResponse> definition = extractiveAnswerBuilder.definition(question);
+        if (definition.isPresent()) {
+            metrics.count("rag.pipeline.fast_path", "type", "definition");
+            return Retrieval.builder().earlyResponse(definition.get()).build();
+        }
+        if (redirect != null) {
+            return redirectRetrieval(question, redirect, results);
+        }
+        if (results.isEmpty()) {
+            return notFoundRetrieval(question);
+        }
+        return expandedRetrieval(question, expansion, results, extractRelatedTerms(question, expansion));
+    }
+
+    private Retrieval expandedRetrieval(
+            String question,
+            QueryExpansion expansion,
+            List<SearchResult> searchResults,
+            List<TermInfo> relatedTerms) {
+
+        return Retrieval.builder()
+            .question(question)
+            .expansion(expansion)
+            .searchResults(searchResults)
+            .context(metrics.time(PipelineMetrics.RAG_STAGE, "context", () -> contextPacker.pack(searchResults)))
+            .relatedTerms(relatedTerms)
+            .sources(extractSources(searchResults))
+            .build();
+    }
+
+    private Retrieval notFoundRetrieval(String question) {
+        return Retrieval.builder()
+            .earlyResponse(QnaResponse.builder()
                 .question(question)
                 .answer("죄송합니다. 질문과 관련된 정책이나 매뉴얼 정보를 찾을 수 없습니다. " +
                         "다른 키워드로 검색하거나 담당 부서에 문의해 주세요.")
                 .sources(Collections.emptyList())
                 .relatedTerms(Collections.emptyList())
-                .build();
+                .llmSkipped(true)
+                .build())
+            .build();
+    }
+
+    /**
+     * 온톨로지 확장 실패 시 원래 질문만으로 구성한 확장 결과
+     */
+    QueryExpansion fallbackExpansion(String question) {
+        return QueryExpansion.builder()
+            .originalQuery(question)
+            .expandedTerms(List.of(question))
+            .termWeights(Map.of(question, 1.0))
+            .matchedConcepts(Collections.emptyList())
+            .conceptTerms(Collections.emptyList())
+            .build();
+    }
+
+    /**
+     * 벡터 검색 수행
+     */
+    private List<SearchResult> search(String question, QueryExpansion expansion, SearchFilter filter) {
+        if (useOntologyBoost && !expansion.getExpandedTerms().isEmpty()) {
+            return vectorStoreService.searchWithExpansion(
+                expansion.getExpandedTerms(),
+                expansion.getTermWeights(),
+                getCandidatePoolSize(),
+                filter
+            );
+        }
+        return vectorStoreService.searchWithFilter(question, filter, getCandidatePoolSize());
+    }
+
+    /**
+     * 후보 청크 재순위 후 MMR 로 상위 K개만 남김 (LLM 에는 서로 다른 내용의 소수 청크만 전달)
+     */
+    List<SearchResult> rerank(QueryExpansion expansion, List<SearchResult> candidates) {
+        List<SearchResult> ranked = !useOntologyBoost || expansion == null
+            ? candidates
+            : metrics.time(PipelineMetrics.RAG_STAGE, "rerank",
+                () -> ontologyReranker.rerank(candidates, expansion.getConceptTerms(), ontologyBoostWeight, candidates.size()));
+        return metrics.time(PipelineMetrics.RAG_STAGE, "mmr", () -> mmrSelector.select(ranked, topK));
+    }
+
+    /**
+     * 질문에 필요한 검색어와 가중치 (일괄 처리에서 검색을 공유하기 위해 사용)
+     */
+    Map<String, Double> searchTermsFor(String question, RedirectResult redirect, QueryExpansion expansion) {
+        if (redirect != null) {
+            return Map.of(redirect.getTargetReference(), 1.0);
+        }
+        if (useOntologyBoost && !expansion.getExpandedTerms().isEmpty()) {
+            Map<String, Double> terms = new LinkedHashMap<>();
+            for (String term : expansion.getExpandedTerms()) {
+                terms.put(term, expansion.getTermWeights().getOrDefault(term, 1.0));
+            }
+            return terms;
+        }
+        return Map.of(question, 1.0);
+    }
+
+    /**
+     * 키워드(BM25) 검색 - 조항 번호, 문서 코드 등 정확한 표현 일치용
+     */
+    List<SearchResult> lexicalSearch(String query, SearchFilter filter) {
+        if (!useLexicalSearch) {
+            return Collections.emptyList();
         }
+        return lexicalIndex.search(query, Math.max(lexicalTopK, getCandidatePoolSize()), filter);
+    }
 
-        // 5. 컨텍스트 구성
-        String context = buildContext(searchResults);
+    /**
+     * 벡터 검색 결과와 키워드 검색 결과를 순위 기반으로 병합
+     */
+    List<SearchResult> fuse(List<SearchResult> vectorResults, List<SearchResult> lexicalResults) {
+        if (lexicalResults.isEmpty()) {
+            return vectorResults;
+        }
+        return ReciprocalRankFusion.fuse(List.of(vectorResults, lexicalResults), rrfK, getCandidatePoolSize());
+    }
 
-        // 6. 관련 용어 정의 수집
-        List<TermInfo> relatedTerms = extractRelatedTerms(question, expansion);
+    int getTopK() {
+        return topK;
+    }
 
-        // 7. LLM 답변 생성
-        String answer = generateAnswer(question, context, relatedTerms);
+    int getCandidatePoolSize() {
+        return topK * Math.max(1, candidateMultiplier);
+    }
 
-        // 8. 출처 정보 추출
-        List<SourceInfo> sources = extractSources(searchResults);
+    /**
+     * 파이프라인 단계 비동기 실행 (마감시간 포함)
+     * - 시간 초과/취소되면 실행 중인 작업을 인터럽트해 실행기 스레드를 바로 돌려받음
+     * - 실행기 대기열이 가득 차면 시간 초과와 같이 실패한 단계로 처리 (await 의 fallback 사용)
+     */
+    private <T> CompletableFuture<T> stage(String name, long timeoutMs, Supplier<T> task) {
+        return stageAfter(CompletableFuture.completedFuture(null), name, timeoutMs, ignored -> task.get());
+    }
 
-        return QnaResponse.builder()
-            .question(question)
-            .answer(answer)
-            .sources(sources)
-            .relatedTerms(relatedTerms)
-            .expandedTerms(expansion.getExpandedTerms())
-            .searchScores(searchResults.stream()
-                .collect(Collectors.toMap(
-                    SearchResult::getChunkId,
-                    SearchResult::getScore
-                )))
-            .build();
+    /**
+     * 앞 단계 결과를 받아 실행하는 단계 (마감시간은 파이프라인 시작 기준)
+     * CompletableFuture.cancel 은 실행 중인 작업을 멈추지 않으므로 FutureTask 로 실행하고 함께 취소한다.
+     */
+    private <T, R> CompletableFuture<R> stageAfter(
+            CompletableFuture<T> upstream, String name, long timeoutMs, Function<T, R> task) {
+        CompletableFuture<R> stage = new CompletableFuture<R>().orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+
+        upstream.whenComplete((input, failure) -> {
+            if (failure != null) {
+                stage.completeExceptionally(unwrap(failure));
+                return;
+            }
+            if (stage.isDone()) {
+                return;
+            }
+
+            FutureTask<R> work = new FutureTask<>(
+                    () -> metrics.time(PipelineMetrics.RAG_STAGE, name, () -> task.apply(input))) {
+                @Override
+                protected void done() {
+                    try {
+                        stage.complete(get());
+                    } catch (ExecutionException e) {
+                        stage.completeExceptionally(e.getCause());
+                    } catch (CancellationException | InterruptedException e) {
+                        stage.cancel(false);
+                    }
+                }
+            };
+            stage.whenComplete((result, e) -> work.cancel(true));
+
+            try {
+                pipelineExecutor.execute(work);
+            } catch (RejectedExecutionException e) {
+                metrics.count("rag.pipeline.rejected", "stage", name);
+                stage.completeExceptionally(
+                    new TimeoutException("Stage '" + name + "' rejected: pipeline executor queue is full"));
+            }
+        });
+        return stage;
+    }
+
+    /**
+     * 단계 결과 대기 - 실패/시간 초과 시 fallback 사용 (fallback 이 없으면 원래 예외 전파)
+     */
+    private <T> T await(CompletableFuture<T> stage, String name, Supplier<T> fallback) {
+        try {
+            return stage.join();
+        } catch (CancellationException | CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (fallback == null) {
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Stage '" + name + "' failed", cause);
+            }
+            log.warn("Stage '{}' failed ({}), using fallback", name, cause.toString());
+            return fallback.get();
+        }
+    }
+
+    private void cancel(CompletableFuture<?>... stages) {
+        for (CompletableFuture<?> stage : stages) {
+            stage.cancel(true);
+        }
+    }
+
+    private Throwable unwrap(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            return e.getCause();
+        }
+        return e;
     }
 
     /**
-     * 리다이렉트된 질문 처리
+     * 리다이렉트된 질문의 검색 단계
      */
-    private QnaResponse processWithRedirect(String question, RedirectResult redirect) {
+    private Retrieval retrieveWithRedirect(String question, RedirectResult redirect, SearchFilter filter) {
         // 리다이렉트 대상으로 직접 검색
-        List<SearchResult> results = vectorStoreService.search(redirect.getTargetReference(), topK);
+        String target = redirect.getTargetReference();
+        List<SearchResult> results = fuse(
+            metrics.time(PipelineMetrics.RAG_STAGE, "search", () -> vectorStoreService.searchWithFilter(target, filter, topK)),
+            metrics.time(PipelineMetrics.RAG_STAGE, "lexical", () -> lexicalSearch(target, filter)))
+            .stream()
+            .limit(topK)
+            .collect(Collectors.toList());
 
+        return redirectRetrieval(question, redirect, results);
+    }
+
+    private Retrieval redirectRetrieval(String question, RedirectResult redirect, List<SearchResult> results) {
         if (results.isEmpty()) {
-            return QnaResponse.builder()
-                .question(question)
-                .answer("'" + redirect.getTargetReference() + "'을(를) 참조하도록 설정되어 있으나, " +
-                        "해당 문서를 찾을 수 없습니다.")
-                .sources(Collections.emptyList())
-                .redirectInfo(redirect)
+            return Retrieval.builder()
+                .earlyResponse(QnaResponse.builder()
+                    .question(question)
+                    .answer("'" + redirect.getTargetReference() + "'을(를) 참조하도록 설정되어 있으나, " +
+                            "해당 문서를 찾을 수 없습니다.")
+                    .sources(Collections.emptyList())
+                    .redirectInfo(redirect)
+                    .llmSkipped(true)
+                    .build())
                 .build();
         }
 
-        String context = buildContext(results);
-        String answer = generateAnswer(question, context, Collections.emptyList());
+        // 대상 조항이 검색 결과 상위에 있으면 조항 본문으로 바로 답변
+        List<SourceInfo> sources = extractSources(results);
+        Optional<QnaResponse> extractive = extractiveAnswerBuilder.redirect(question, redirect, results, sources);
+        if (extractive.isPresent()) {
+            metrics.count("rag.pipeline.fast_path", "type", "redirect");
+            return Retrieval.builder().earlyResponse(extractive.get()).build();
+        }
 
-        return QnaResponse.builder()
+        return Retrieval.builder()
             .question(question)
-            .answer(answer)
-            .sources(extractSources(results))
-            .redirectInfo(redirect)
+            .redirect(redirect)
+            .searchResults(results)
+            .context(metrics.time(PipelineMetrics.RAG_STAGE, "context", () -> contextPacker.pack(results)))
+            .relatedTerms(Collections.emptyList())
+            .sources(sources)
             .build();
     }
 
     /**
-     * 검색 결과로 컨텍스트 구성
+     * 검색 결과와 생성된 답변으로 응답 구성
      */
-    private String buildContext(List<SearchResult> results) {
-        StringBuilder context = new StringBuilder();
-        context.append("=== 관련 문서 내용 ===\n\n");
-
-        for (int i = 0; i < results.size(); i++) {
-            SearchResult result = results.get(i);
-            context.append(String.format("[문서 %d] %s\n", i + 1, result.getSourceReference()));
-            context.append(result.getContent());
-            context.append("\n\n---\n\n");
+    private QnaResponse toResponse(Retrieval retrieval, String answer) {
+        if (retrieval.getRedirect() != null) {
+            return QnaResponse.builder()
+                .question(retrieval.getQuestion())
+                .answer(answer)
+                .sources(retrieval.getSources())
+                .redirectInfo(retrieval.getRedirect())
+                .contextTokens(retrieval.getContext().getTokenCount())
+                .contextTokensSaved(retrieval.getContext().getTokensSaved())
+                .build();
         }
 
-        return context.toString();
+        return QnaResponse.builder()
+            .question(retrieval.getQuestion())
+            .answer(answer)
+            .sources(retrieval.getSources())
+            .relatedTerms(retrieval.getRelatedTerms())
+            .expandedTerms(retrieval.getExpansion().getExpandedTerms())
+            .searchScores(retrieval.getSearchResults().stream()
+                .collect(Collectors.toMap(
+                    SearchResult::getChunkId,
+                    SearchResult::getScore,
+                    Math::max
+                )))
+            .contextTokens(retrieval.getContext().getTokenCount())
+            .contextTokensSaved(retrieval.getContext().getTokensSaved())
+            .build();
+    }
+
+    /**
+     * 마감시간 초과 시 상위 검색 결과 원문으로 만든 대체 응답 (캐시하지 않음)
+     */
+    private QnaResponse degradedResponse(Retrieval retrieval, String reason) {
+        metrics.count("rag.pipeline.degraded", "reason", reason);
+        log.warn("Answer deadline exceeded ({}), returning extractive answer: {}", reason, retrieval.getQuestion());
+
+        return toResponse(retrieval, extractiveAnswerBuilder.degradedAnswer(retrieval.getSearchResults()))
+            .toBuilder()
+            .llmSkipped(true)
+            .degraded(true)
+            .build();
     }
 
     /**
@@ -197,8 +727,89 @@ public class RagPipelineService {
 
     /**
      * LLM을 통한 답변 생성
+     * 마감시간이 있으면 스트리밍으로 받다가 시간이 지나면 요청을 취소하고 빈 값을 반환한다.
+     */
+    private Optional<String> generateAnswer(String question, String context, List<TermInfo> relatedTerms,
+                                            GenerationAdmission.Priority priority, long deadline) {
+        if (remainingMillis(deadline) <= 0) {
+            return Optional.empty();
+        }
+
+        try (GenerationAdmission.Permit permit = acquireSlot(priority, remainingMillis(deadline))) {
+            if (deadline == NO_DEADLINE) {
+                ChatResponse response = metrics.time(PipelineMetrics.RAG_STAGE, "generation",
+                    () -> buildPrompt(question, context, relatedTerms)
+                        .call()
+                        .chatResponse());
+                recordUsage(response);
+                return Optional.of(contentOf(response));
+            }
+
+            StringBuilder answer = new StringBuilder();
+            boolean completed = metrics.time(PipelineMetrics.RAG_STAGE, "generation",
+                () -> buildPrompt(question, context, relatedTerms)
+                    .stream()
+                    .chatResponse()
+                    .doOnNext(this::recordUsage)
+                    .doOnNext(response -> answer.append(contentOf(response)))
+                    .then(Mono.just(true))
+                    .timeout(Duration.ofMillis(remainingMillis(deadline)), Mono.just(false))
+                    .block());
+            return completed ? Optional.of(answer.toString()) : Optional.empty();
+        }
+    }
+
+    /**
+     * LLM 생성 슬롯 획득 (대기 시간은 admission 단계로 기록)
+     */
+    private GenerationAdmission.Permit acquireSlot(GenerationAdmission.Priority priority, long maxWaitMs) {
+        return metrics.time(PipelineMetrics.RAG_STAGE, "admission", () -> admission.acquire(priority, maxWaitMs));
+    }
+
+    private long answerDeadline() {
+        return deadlineAfter(answerDeadlineMs);
+    }
+
+    private long deadlineAfter(long millis) {
+        return millis > 0
+            ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis)
+            : NO_DEADLINE;
+    }
+
+    private long remainingMillis(long deadline) {
+        if (deadline == NO_DEADLINE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    private String contentOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String content = response.getResult().getOutput().getContent();
+        return content != null ? content : "";
+    }
+
+    /**
+     * Ollama 프롬프트/생성 토큰 수 기록 (스트리밍은 마지막 응답에만 값이 있음)
      */
-    private String generateAnswer(String question, String context, List<TermInfo> relatedTerms) {
+    private void recordUsage(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) {
+            return;
+        }
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) {
+            return;
+        }
+        metrics.recordTokens("prompt", usage.getPromptTokens());
+        metrics.recordTokens("generation", usage.getGenerationTokens());
+    }
+
+    /**
+     * LLM 요청 프롬프트 구성
+     */
+    private ChatClient.ChatClientRequestSpec buildPrompt(String question, String context, List<TermInfo> relatedTerms) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("## 질문\n").append(question).append("\n\n");
         prompt.append("## 참조 문서\n").append(context).append("\n");
@@ -214,16 +825,12 @@ public class RagPipelineService {
 
         prompt.append("위 문서를 참고하여 질문에 답변해 주세요.");
 
-        ChatClient chatClient = chatClientBuilder.build();
-
         List<Message> messages = List.of(
             new SystemMessage(SYSTEM_PROMPT),
             new UserMessage(prompt.toString())
         );
 
-        return chatClient.prompt(new Prompt(messages))
-            .call()
-            .content();
+        return chatClient.prompt(new Prompt(messages));
     }
 
     /**
@@ -251,7 +858,7 @@ public class RagPipelineService {
 
     // ==================== 응답 DTO ====================
 
-    @lombok.Builder
+    @lombok.Builder(toBuilder = true)
     @lombok.Getter
     public static class QnaResponse {
         private String question;
@@ -261,6 +868,10 @@ public class RagPipelineService {
         private List<String> expandedTerms;
         private Map<String, Double> searchScores;
         private RedirectResult redirectInfo;
+        private Integer contextTokens;       // LLM 에 전달한 컨텍스트 토큰 수 (추정)
+        private Integer contextTokensSaved;  // 병합/오버랩 제거/예산 적용으로 절약한 토큰 수 (추정)
+        private boolean llmSkipped;          // LLM 생성 없이 답변 (용어 정의/조항 원문/검색 결과 없음)
+        private boolean degraded;            // 응답 마감시간 초과로 검색 결과 원문을 대신 안내
     }
 
     @lombok.Builder
@@ -290,4 +901,51 @@ public class RagPipelineService {
         private String conceptType;
         private List<String> synonyms;
     }
+
+    /**
+     * 스트리밍 이벤트 (sources -> token... -> done)
+     */
+    @lombok.Getter
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static class StreamEvent {
+        public static final String SOURCES = "sources";
+        public static final String TOKEN = "token";
+        public static final String DONE = "done";
+        public static final String ERROR = "error";
+
+        private String type;
+        private Object data;
+
+        public static StreamEvent sources(List<SourceInfo> sources) {
+            return new StreamEvent(SOURCES, sources);
+        }
+
+        public static StreamEvent token(String token) {
+            return new StreamEvent(TOKEN, token);
+        }
+
+        public static StreamEvent done(QnaResponse response) {
+            return new StreamEvent(DONE, response);
+        }
+
+        public static StreamEvent error(String message) {
+            return new StreamEvent(ERROR, message);
+        }
+    }
+
+    /**
+     * 검색 단계 결과 (생성 단계 입력)
+     */
+    @lombok.Builder
+    @lombok.Getter
+    static class Retrieval {
+        private String question;
+        private QueryExpansion expansion;
+        private RedirectResult redirect;
+        private List<SearchResult> searchResults;
+        private PackedContext context;
+        private List<TermInfo> relatedTerms;
+        private List<SourceInfo> sources;
+        private QnaResponse earlyResponse;
+    }
 }
@@ -0,0 +1,262 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.document.DocumentIndexChangedEvent;
+import com.company.policyqna.ontology.OntologyChangedEvent;
+import com.company.policyqna.rag.RagPipelineService.QnaResponse;
+import com.company.policyqna.vector.EmbeddingCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시맨틱 답변 캐시
+ * - 질문 임베딩 기준으로 유사한 질문의 답변 재사용 (LLM 호출 생략)
+ * - 최대 크기 제한 + LRU 제거
+ * - 검색 범위(부서/문서 유형 필터)가 같은 질문끼리만 재사용
+ * - 문서/온톨로지 변경 시 전체 무효화
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SemanticAnswerCache implements MeterBinder {
+
+    private final EmbeddingCache embeddingCache;
+
+    @Value("${rag.answer-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rag.answer-cache.similarity-threshold:0.95}")
+    private double similarityThreshold;
+
+    @Value("${rag.answer-cache.max-entries:500}")
+    private int maxEntries;
+
+    // 접근 순서 유지 (LRU)
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    // 무효화 세대 - 계산 중 무효화된 답변이 저장되지 않도록 함
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * 캐시 조회 - 적중 시 저장된 응답, 미적중 시 이후 저장에 쓸 임베딩 반환
+     */
+    public Lookup lookup(String question) {
+        return lookup(question, "");
+    }
+
+    /**
+     * 검색 범위별 캐시 조회 (scope 가 다른 답변은 재사용하지 않음)
+     */
+    public Lookup lookup(String question, String scope) {
+        long currentGeneration = generation.get();
+        if (!enabled) {
+            return Lookup.bypass(currentGeneration);
+        }
+
+        String normalized = EmbeddingCache.normalize(question);
+        String key = scope.isEmpty() ? normalized : scope + "\n" + normalized;
+        float[] embedding;
+        try {
+            embedding = unitVector(embeddingCache.embed(question));
+        } catch (RuntimeException e) {
+            log.warn("Answer cache lookup skipped, embedding failed: {}", e.getMessage());
+            return Lookup.bypass(currentGeneration);
+        }
+
+        synchronized (entries) {
+            CacheEntry exact = entries.get(key);
+            if (exact != null) {
+                hits.incrementAndGet();
+                return Lookup.hit(exact.response(), 1.0, currentGeneration);
+            }
+
+            CacheEntry best = null;
+            double bestScore = similarityThreshold;
+            for (CacheEntry entry : entries.values()) {
+                if (!entry.scope().equals(scope)) {
+                    continue;
+                }
+                double score = dot(embedding, entry.embedding());
+                if (score >= bestScore) {
+                    best = entry;
+                    bestScore = score;
+                }
+            }
+
+            if (best != null) {
+                // LRU 순서 갱신
+                entries.get(best.key());
+                hits.incrementAndGet();
+                log.debug("Answer cache hit ({}): '{}' ~ '{}'", bestScore, question, best.key());
+                return Lookup.hit(best.response(), bestScore, currentGeneration);
+            }
+        }
+
+        misses.incrementAndGet();
+        return Lookup.miss(key, scope, embedding, currentGeneration);
+    }
+
+    /**
+     * 새로 생성한 답변 저장
+     */
+    public void put(Lookup lookup, QnaResponse response) {
+        if (lookup.embedding == null || response == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            // 답변 계산 중 문서/온톨로지가 바뀌었으면 저장하지 않음
+            if (lookup.generation != generation.get()) {
+                return;
+            }
+
+            entries.put(lookup.key, new CacheEntry(lookup.key, lookup.scope, lookup.embedding, response));
+
+            Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 전체 무효화
+     */
+    public void invalidateAll(String reason) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            int size = entries.size();
+            entries.clear();
+            invalidations.incrementAndGet();
+            log.info("Answer cache invalidated ({}): {} entries dropped", reason, size);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentIndexChanged(DocumentIndexChangedEvent event) {
+        invalidateAll("document " + event.documentId() + " " + event.changeType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOntologyChanged(OntologyChangedEvent event) {
+        invalidateAll("ontology " + event.changeType());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("rag.answer_cache.requests", hits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("rag.answer_cache.requests", misses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("rag.answer_cache.evictions", evictions, AtomicLong::get)
+            .register(registry);
+        Gauge.builder("rag.answer_cache.size", entries, map -> {
+                synchronized (map) {
+                    return map.size();
+                }
+            })
+            .register(registry);
+    }
+
+    /**
+     * 캐시 통계
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private float[] unitVector(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        if (norm == 0) {
+            return vector;
+        }
+
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = (float) (vector[i] / norm);
+        }
+        return unit;
+    }
+
+    private double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0.0;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record CacheEntry(String key, String scope, float[] embedding, QnaResponse response) {}
+
+    /**
+     * 캐시 조회 결과
+     */
+    @lombok.Getter
+    @lombok.AllArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static class Lookup {
+        private final QnaResponse response;
+        private final double similarity;
+        private final String key;
+        private final String scope;
+        private final float[] embedding;
+        private final long generation;
+
+        static Lookup hit(QnaResponse response, double similarity, long generation) {
+            return new Lookup(response, similarity, null, null, null, generation);
+        }
+
+        static Lookup miss(String key, String scope, float[] embedding, long generation) {
+            return new Lookup(null, 0.0, key, scope, embedding, generation);
+        }
+
+        static Lookup bypass(long generation) {
+            return new Lookup(null, 0.0, null, null, null, generation);
+        }
+
+        public boolean isHit() {
+            return response != null;
+        }
+    }
+}
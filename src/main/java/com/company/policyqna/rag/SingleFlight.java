@@ -0,0 +1,85 @@
+package com.company.policyqna.rag;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 동일 요청 병합 (single-flight)
+ * - 같은 키로 진행 중인 계산이 있으면 새로 시작하지 않고 그 결과를 기다린다
+ * - 선행 계산이 실패하면 대기자에게 같은 예외를 전파한다
+ * - 선행 계산이 취소(스레드 인터럽트)된 경우 대기자는 다시 시도한다 (한 명이 새로 계산)
+ * - 대기자가 인터럽트되면 자신의 대기만 중단하고 공유 계산은 유지한다
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 키 단위로 병합 실행
+     */
+    public Result<V> execute(K key, Supplier<V> task) {
+        while (true) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+            if (existing == null) {
+                return new Result<>(lead(key, mine, task), false);
+            }
+
+            try {
+                return new Result<>(existing.get(), true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for in-flight request");
+            } catch (CancellationException e) {
+                // 선행 요청이 취소됨 - 다시 시도
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof CancellationException) {
+                    continue;
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new CompletionException(cause);
+            }
+        }
+    }
+
+    /**
+     * 선행 계산 - 키를 먼저 지운 뒤 완료 (재시도하는 대기자가 끝난 계산을 다시 집지 않도록)
+     */
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> task) {
+        V value;
+        try {
+            value = task.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            if (Thread.currentThread().isInterrupted() || e instanceof CancellationException) {
+                // 선행 요청 자신의 취소는 대기자에게 실패로 전파하지 않는다
+                mine.completeExceptionally(new CancellationException("Leader request cancelled"));
+            } else {
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        }
+        inFlight.remove(key, mine);
+        mine.complete(value);
+        return value;
+    }
+
+    /**
+     * 현재 진행 중인 키 개수
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 실행 결과 (shared: 다른 요청의 계산 결과를 공유받았는지 여부)
+     */
+    public record Result<V>(V value, boolean shared) {}
+}
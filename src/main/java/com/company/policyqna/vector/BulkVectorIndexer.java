@@ -0,0 +1,144 @@
+package com.company.policyqna.vector;
+
+import com.company.policyqna.metrics.PipelineMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 일괄 인덱싱 파이프라인
+ * - 청크를 batch-size 단위로 나눠 indexingExecutor 에서 배치 임베딩 후 바로 기록
+ * - 실행 슬롯(parallelism 개)은 앱 전체가 공유 - 업로드가 여러 건이어도 Ollama 동시 요청 수는 그대로,
+ *   슬롯이 없으면 업로드 스레드가 대기 (배압, 업로드 스레드에서 직접 실행하지 않음)
+ * - 배치 하나가 실패하면 남은 배치는 제출하지 않고 예외를 던짐
+ * - 처리량(chunks/sec)은 로그와 document.ingest.throughput 지표로 남김
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkVectorIndexer {
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorWriter vectorWriter;
+    private final PipelineMetrics metrics;
+
+    @Qualifier("indexingExecutor")
+    private final ExecutorService indexingExecutor;
+
+    @Value("${rag.indexing.batch-size:32}")
+    private int batchSize;
+
+    @Value("${rag.indexing.parallelism:2}")
+    private int parallelism;
+
+    // 모든 업로드가 공유하는 실행 슬롯 (공정 - 먼저 기다린 업로드의 배치가 먼저)
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        slots = new Semaphore(parallelism, true);
+    }
+
+    public IndexReport index(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return new IndexReport(0, 0, 0L, 0.0);
+        }
+
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int from = 0; from < documents.size() && failure.get() == null; from += batchSize) {
+                BatchTask task = new BatchTask(documents.subList(from, Math.min(from + batchSize, documents.size())), failure);
+                slots.acquire();
+                futures.add(task);
+                try {
+                    indexingExecutor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.cancel(false);
+                    throw new ExecutionException(e);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Bulk indexing failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Bulk indexing interrupted", e);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double chunksPerSecond = documents.size() * 1000.0 / Math.max(1, elapsedMs);
+        metrics.record("document.ingest.throughput", chunksPerSecond, "chunks/s");
+        log.info("Indexed {} chunks in {} batches: {}ms ({} chunks/s)",
+            documents.size(), futures.size(), elapsedMs, String.format("%.1f", chunksPerSecond));
+        return new IndexReport(documents.size(), futures.size(), elapsedMs, chunksPerSecond);
+    }
+
+    /**
+     * 배치 하나 - 슬롯은 실제로 실행한 작업 스레드, 또는 시작 전에 취소된 경우 취소한 쪽이 한 번만 반납
+     * (실행 중 취소는 작업 스레드가 임베딩 호출에서 빠져나온 뒤 반납 - 동시 요청 수 상한 유지)
+     */
+    private final class BatchTask extends FutureTask<Void> {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        BatchTask(List<Document> batch, AtomicReference<Throwable> failure) {
+            super(() -> {
+                try {
+                    indexBatch(batch);
+                    return null;
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            if (claimed.compareAndSet(false, true)) {
+                try {
+                    super.run();
+                } finally {
+                    slots.release();
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() && claimed.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private void indexBatch(List<Document> batch) {
+        List<String> contents = batch.stream().map(Document::getContent).toList();
+        List<float[]> embeddings = metrics.time(PipelineMetrics.INGEST_STAGE, "embed",
+            () -> embeddingModel.embed(contents));
+        metrics.run(PipelineMetrics.INGEST_STAGE, "write", () -> vectorWriter.write(batch, embeddings));
+    }
+
+    /**
+     * 인덱싱 결과 (청크 수, 배치 수, 소요 시간, 처리량)
+     */
+    public record IndexReport(int chunks, int batches, long elapsedMs, double chunksPerSecond) {}
+}
@@ -0,0 +1,46 @@
+package com.company.policyqna.vector;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 검색 대상 코퍼스 버전
+ * - 문서 업로드/재인덱싱/삭제가 커밋될 때마다 1씩 증가
+ * - 검색 결과 캐시는 조회 시작 시점의 버전으로 저장하므로 변경 이전 결과는 다시 쓰이지 않는다
+ */
+@Component
+@Slf4j
+public class CorpusVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * 현재 트랜잭션이 끝난 뒤 버전 증가 (트랜잭션이 없으면 즉시)
+     * 커밋 전에 올리면 그 사이 조회한 이전 결과가 새 버전으로 캐시될 수 있다.
+     */
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bump();
+            }
+        });
+    }
+
+    private void bump() {
+        long next = version.incrementAndGet();
+        log.debug("Corpus version bumped to {}", next);
+    }
+}
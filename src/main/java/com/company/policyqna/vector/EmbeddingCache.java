@@ -0,0 +1,325 @@
+package com.company.policyqna.vector;
+
+import com.company.policyqna.ontology.OntologyChangedEvent;
+import com.company.policyqna.ontology.OntologyConcept;
+import com.company.policyqna.ontology.OntologyRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 검색어/질문 임베딩 캐시
+ * - 정규화한 텍스트 -> 임베딩 벡터 (Ollama 임베딩 호출 생략)
+ * - 벡터는 off-heap FloatBuffer 한 덩어리에 슬롯 단위로 저장 (박싱/객체 헤더 없음)
+ * - 가득 차면 표본 LFU 로 제거, 온톨로지 용어(개념명/동의어/약어)는 빈도에 가중치를 줘서 오래 남긴다
+ * - 임베딩은 문서 내용과 무관하므로 문서 재인덱싱에는 무효화하지 않고,
+ *   임베딩 모델이 바뀌었을 때(차원 불일치 감지 또는 flush 호출)만 비운다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingCache implements MeterBinder {
+
+    private static final int EVICTION_SAMPLE = 8;
+    private static final int MAX_FREQUENCY = 1 << 16;
+
+    private final EmbeddingModel embeddingModel;
+    private final OntologyRepository ontologyRepository;
+
+    @Value("${rag.embedding-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rag.embedding-cache.max-entries:10000}")
+    private int maxEntries;
+
+    // 제거 후보 비교 시 온톨로지 용어의 사용 빈도에 곱하는 값
+    @Value("${rag.embedding-cache.ontology-term-weight:4}")
+    private int ontologyTermWeight;
+
+    @Value("${spring.ai.vectorstore.pgvector.dimensions:768}")
+    private int dimensions;
+
+    @Value("${spring.ai.ollama.embedding.model:nomic-embed-text}")
+    private String modelName;
+
+    @Value("${rag.search.embedding-batch-size:64}")
+    private int embeddingBatchSize;
+
+    // 정규화 텍스트 -> 슬롯 번호, 슬롯 i 의 벡터는 slab[i * dimensions, (i + 1) * dimensions)
+    private final Map<String, Integer> slots = new HashMap<>();
+    private FloatBuffer slab;
+    private String[] keys;
+    private int[] frequency;
+    private long accessesSinceAging;
+
+    private volatile Set<String> ontologyTerms = Set.of();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    /**
+     * 단일 텍스트 임베딩
+     */
+    public float[] embed(String text) {
+        return embedAll(List.of(text)).get(0);
+    }
+
+    /**
+     * 여러 텍스트 임베딩 - 캐시에 없는 텍스트만 배치로 모델 호출 (embedding-batch-size 단위)
+     */
+    public List<float[]> embedAll(List<String> texts) {
+        float[][] vectors = new float[texts.size()][];
+        Map<String, List<Integer>> missing = new LinkedHashMap<>();
+
+        if (enabled) {
+            synchronized (slots) {
+                for (int i = 0; i < texts.size(); i++) {
+                    String key = normalize(texts.get(i));
+                    vectors[i] = get(key);
+                    if (vectors[i] == null) {
+                        missing.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < texts.size(); i++) {
+                missing.computeIfAbsent(normalize(texts.get(i)), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return Arrays.asList(vectors);
+        }
+
+        // 같은 정규화 텍스트는 처음 나온 원문으로 한 번만 임베딩
+        List<String> pending = new ArrayList<>(missing.keySet());
+        List<String> inputs = pending.stream()
+            .map(key -> texts.get(missing.get(key).get(0)))
+            .toList();
+        List<float[]> computed = new ArrayList<>(inputs.size());
+        for (int from = 0; from < inputs.size(); from += embeddingBatchSize) {
+            int to = Math.min(from + embeddingBatchSize, inputs.size());
+            computed.addAll(embeddingModel.embed(inputs.subList(from, to)));
+        }
+
+        synchronized (slots) {
+            for (int i = 0; i < pending.size(); i++) {
+                float[] vector = computed.get(i);
+                if (enabled) {
+                    put(pending.get(i), vector);
+                }
+                for (int index : missing.get(pending.get(i))) {
+                    vectors[index] = vector;
+                }
+            }
+        }
+        return Arrays.asList(vectors);
+    }
+
+    /**
+     * 전체 비우기 (임베딩 모델 교체 시)
+     */
+    public void flush(String reason) {
+        synchronized (slots) {
+            int size = slots.size();
+            slots.clear();
+            slab = null;
+            keys = null;
+            frequency = null;
+            accessesSinceAging = 0;
+            flushes.incrementAndGet();
+            log.info("Embedding cache flushed ({}): {} entries dropped", reason, size);
+        }
+    }
+
+    // 기동 워밍업 전에 온톨로지 용어 목록 적재
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public void loadOntologyTerms() {
+        Set<String> terms = new HashSet<>();
+        for (OntologyConcept concept : ontologyRepository.findAll()) {
+            terms.add(normalize(concept.getName()));
+            concept.getSynonyms().forEach(synonym -> terms.add(normalize(synonym)));
+            concept.getAbbreviations().forEach(abbreviation -> terms.add(normalize(abbreviation)));
+        }
+        ontologyTerms = Set.copyOf(terms);
+        log.info("Embedding cache ontology terms loaded: {} (model {})", terms.size(), modelName);
+    }
+
+    /**
+     * 온톨로지 변경 시 용어 목록만 갱신 (캐시된 임베딩은 그대로 유효)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onOntologyChanged(OntologyChangedEvent event) {
+        loadOntologyTerms();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("rag.embedding_cache.requests", hits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("rag.embedding_cache.requests", misses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("rag.embedding_cache.evictions", evictions, AtomicLong::get)
+            .register(registry);
+        Gauge.builder("rag.embedding_cache.size", slots, map -> {
+                synchronized (map) {
+                    return map.size();
+                }
+            })
+            .register(registry);
+        Gauge.builder("rag.embedding_cache.bytes", this, cache -> cache.capacityBytes())
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * 캐시 통계
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (slots) {
+            size = slots.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("model", modelName);
+        stats.put("dimensions", dimensions);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("offHeapBytes", capacityBytes());
+        stats.put("ontologyTerms", ontologyTerms.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("flushes", flushes.get());
+        return stats;
+    }
+
+    /**
+     * 텍스트 정규화 (공백/대소문자 차이 제거) - 임베딩/검색 결과/답변 캐시가 같은 키 규칙을 쓴다
+     */
+    public static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    // ==================== 슬롯 관리 (slots 잠금 안에서 호출) ====================
+
+    private float[] get(String key) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        touch(slot);
+
+        float[] vector = new float[dimensions];
+        slab.get(slot * dimensions, vector);
+        return vector;
+    }
+
+    private void put(String key, float[] vector) {
+        if (vector.length != dimensions) {
+            // 설정과 다른 차원 - 임베딩 모델이 바뀐 것으로 보고 이전 벡터를 모두 버린다
+            log.warn("Embedding dimension {} does not match configured {}", vector.length, dimensions);
+            if (!slots.isEmpty()) {
+                flush("embedding dimension changed");
+            }
+            return;
+        }
+        if (slots.containsKey(key)) {
+            return;
+        }
+        if (slab == null) {
+            allocate();
+        }
+
+        int slot = slots.size() < maxEntries ? slots.size() : evict();
+        slab.put(slot * dimensions, vector);
+        keys[slot] = key;
+        frequency[slot] = 0;
+        slots.put(key, slot);
+        touch(slot);
+    }
+
+    private void allocate() {
+        slab = ByteBuffer.allocateDirect(maxEntries * dimensions * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        keys = new String[maxEntries];
+        frequency = new int[maxEntries];
+        log.info("Embedding cache allocated: {} entries x {} dims ({} MB off-heap)",
+            maxEntries, dimensions, capacityBytes() / (1024 * 1024));
+    }
+
+    /**
+     * 표본 LFU - 임의 슬롯 몇 개 중 (가중) 사용 빈도가 가장 낮은 슬롯을 비워 반환
+     */
+    private int evict() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int victim = -1;
+        long victimScore = Long.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLE; i++) {
+            int slot = random.nextInt(maxEntries);
+            long score = (long) frequency[slot] * (ontologyTerms.contains(keys[slot]) ? ontologyTermWeight : 1);
+            if (score < victimScore) {
+                victim = slot;
+                victimScore = score;
+            }
+        }
+
+        slots.remove(keys[victim]);
+        keys[victim] = null;
+        evictions.incrementAndGet();
+        return victim;
+    }
+
+    /**
+     * 사용 빈도 증가, 일정 횟수마다 전체 빈도를 절반으로 줄여 오래된 인기 항목이 남지 않게 한다
+     */
+    private void touch(int slot) {
+        if (frequency[slot] < MAX_FREQUENCY) {
+            frequency[slot]++;
+        }
+        if (++accessesSinceAging >= (long) maxEntries * 8) {
+            for (int i = 0; i < frequency.length; i++) {
+                frequency[i] >>= 1;
+            }
+            accessesSinceAging = 0;
+        }
+    }
+
+    private long capacityBytes() {
+        FloatBuffer current = slab;
+        return current != null ? (long) current.capacity() * Float.BYTES : 0L;
+    }
+}
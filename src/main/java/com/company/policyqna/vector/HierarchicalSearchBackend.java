@@ -0,0 +1,166 @@
+package com.company.policyqna.vector;
+
+import com.company.policyqna.document.DocumentIndexChangedEvent;
+import com.company.policyqna.metrics.PipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * 계층 검색 (rag.hierarchical.enabled=true)
+ * - 1단계: section_vectors 에서 문서 요약 벡터로 상위 문서, 그 문서들의 조항 요약 벡터로 상위 조항 선택
+ * - 2단계: 선택한 조항 범위 안에서만 청크 검색 (idx_vector_store_article_scope 로 후보를 먼저 좁힘)
+ * - 요약 벡터 = 범위 안 청크 임베딩의 평균 (vector_store 에서 SQL 로 집계, 임베딩 추가 호출 없음)
+ * - 기동 시 전체 재구성, 이후 문서 변경 이벤트로 문서 단위 재구성
+ * - 범위 안에서 결과가 없으면 전체 청크 검색으로 대체
+ * - 양자화 1차 검색(rag.vector-store.quantized)과 함께 켜면 이 백엔드가 우선한다
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${rag.hierarchical.enabled:false} and '${rag.vector-store.type:pgvector}' == 'pgvector'")
+@RequiredArgsConstructor
+@Slf4j
+public class HierarchicalSearchBackend implements VectorSearchBackend {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgVectorSearchRepository pgVectorSearchRepository;
+    private final CorpusVersion corpusVersion;
+    private final PipelineMetrics metrics;
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String tableName;
+
+    @Value("${rag.hierarchical.document-top-k:5}")
+    private int documentTopK;
+
+    @Value("${rag.hierarchical.article-top-k:10}")
+    private int articleTopK;
+
+    /**
+     * 기동 시 전체 재구성 (꺼져 있던 동안의 변경 반영, 한 트랜잭션이라 검색 중 빈 테이블이 보이지 않음)
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM section_vectors");
+        int rows = jdbcTemplate.update(insertSql(""));
+        log.info("Section vectors rebuilt: {} document/article vectors", rows);
+    }
+
+    /**
+     * 문서 변경 반영 - 커밋 후 새 트랜잭션에서 문서 단위로 재구성
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onDocumentIndexChanged(DocumentIndexChangedEvent event) {
+        jdbcTemplate.update("DELETE FROM section_vectors WHERE document_id = ?", event.documentId());
+        if (event.changeType() != DocumentIndexChangedEvent.ChangeType.DELETED) {
+            String documentId = String.valueOf(event.documentId());
+            int rows = jdbcTemplate.update(insertSql("AND metadata->>'documentId' = ?"), documentId, documentId);
+            log.debug("Section vectors rebuilt for document {}: {} rows", event.documentId(), rows);
+        }
+        corpusVersion.bumpAfterCommit();
+    }
+
+    @Override
+    public String name() {
+        return "hierarchical";
+    }
+
+    @Override
+    public List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold, SearchFilter filter) {
+        if (filter.scopes() == null) {
+            List<String> scopes = metrics.time(PipelineMetrics.RAG_STAGE, "section",
+                () -> topArticles(embedding, filter));
+            if (!scopes.isEmpty()) {
+                List<Document> results = pgVectorSearchRepository.searchByEmbedding(
+                    embedding, topK, similarityThreshold, filter.withScopes(scopes));
+                if (!results.isEmpty()) {
+                    return results;
+                }
+            }
+        }
+        return pgVectorSearchRepository.searchByEmbedding(embedding, topK, similarityThreshold, filter);
+    }
+
+    @Override
+    public Map<String, float[]> embeddingsOf(Collection<String> ids) {
+        return pgVectorSearchRepository.embeddingsOf(ids);
+    }
+
+    /**
+     * 1단계 - 상위 문서 안에서 상위 조항 범위 키 선택
+     */
+    private List<String> topArticles(float[] embedding, SearchFilter filter) {
+        String vector = PgVectorSearchRepository.toVectorLiteral(embedding);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder();
+        if (filter.department() != null) {
+            where.append(" AND department = ?");
+            params.add(filter.department());
+        }
+        if (filter.documentType() != null) {
+            where.append(" AND document_type = ?");
+            params.add(filter.documentType());
+        }
+        params.add(vector);
+        params.add(documentTopK);
+        params.add(vector);
+        params.add(articleTopK);
+
+        String sql = """
+            WITH top_documents AS (
+                SELECT document_id FROM section_vectors
+                WHERE level = 'DOCUMENT'%s
+                ORDER BY embedding <=> ?::vector
+                LIMIT ?
+            )
+            SELECT scope FROM section_vectors
+            WHERE level = 'ARTICLE' AND document_id IN (SELECT document_id FROM top_documents)
+            ORDER BY embedding <=> ?::vector
+            LIMIT ?
+            """.formatted(where);
+
+        return jdbcTemplate.queryForList(sql, String.class, params.toArray());
+    }
+
+    /**
+     * vector_store 청크를 조항/문서 단위로 집계해 요약 벡터 삽입
+     * (삭제된 문서의 고아 벡터는 제외)
+     */
+    private String insertSql(String condition) {
+        String source = """
+            FROM %s
+            WHERE metadata->>'documentId' IN (SELECT id::text FROM policy_documents) %s
+            """.formatted(tableName, condition);
+
+        return """
+            INSERT INTO section_vectors
+                (document_id, level, scope, article_number, section_title, department, document_type, chunk_count, embedding)
+            SELECT (metadata->>'documentId')::bigint, 'ARTICLE', %2$s, metadata->>'articleNumber',
+                   min(metadata->>'sectionTitle'), min(metadata->>'department'), min(metadata->>'documentType'),
+                   count(*), avg(embedding)
+            %1$s
+            GROUP BY metadata->>'documentId', metadata->>'articleNumber'
+            UNION ALL
+            SELECT (metadata->>'documentId')::bigint, 'DOCUMENT', (metadata->>'documentId') || '|*', NULL,
+                   NULL, min(metadata->>'department'), min(metadata->>'documentType'),
+                   count(*), avg(embedding)
+            %1$s
+            GROUP BY metadata->>'documentId'
+            """.formatted(source, PgVectorSearchRepository.SCOPE_EXPRESSION);
+    }
+}
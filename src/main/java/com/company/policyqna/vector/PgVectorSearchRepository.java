@@ -0,0 +1,314 @@
+package com.company.policyqna.vector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * pgvector 직접 조회 리포지토리
+ * - 미리 계산한 임베딩 벡터로 vector_store 테이블을 바로 검색
+ * - Spring AI VectorStore 는 쿼리 문자열마다 임베딩을 다시 계산하므로 배치 임베딩 경로에서 사용
+ * - 일괄 인덱싱 시 미리 계산한 임베딩을 다중 행 INSERT 로 기록, 문서/ID 단위 삭제
+ */
+@Repository
+@ConditionalOnProperty(name = "rag.vector-store.type", havingValue = "pgvector", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PgVectorSearchRepository implements VectorSearchBackend, VectorWriter {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+
+    // 문장 하나에 넣는 최대 행 수 (행당 바인딩 파라미터 4개, PostgreSQL 상한 65535)
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    // 조항 범위 키 ("문서ID|조항번호") - SearchFilter.scopeOf 와 같은 형식
+    static final String SCOPE_EXPRESSION = "((metadata->>'documentId') || '|' || coalesce(metadata->>'articleNumber', ''))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String tableName;
+
+    @Override
+    public String name() {
+        return "pgvector";
+    }
+
+    /**
+     * 코사인 거리 기준 유사도 검색 (HNSW 인덱스 사용)
+     */
+    public List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold) {
+        return searchByEmbedding(embedding, topK, similarityThreshold, SearchFilter.none());
+    }
+
+    /**
+     * 필터 조건을 포함한 유사도 검색
+     * - 필터는 WHERE 에 파라미터로 들어가지만, HNSW 인덱스 스캔에서는 hnsw.ef_search 개 후보를 찾은 뒤에 적용된다
+     * - 그래서 선택도가 높은 필터는 topK 보다 적게 돌려줄 수 있으므로, 그때는 인덱스 없이 다시 조회한다
+     *   (metadata 식 인덱스로 해당 행만 읽어 정확히 정렬 - schema-pgvector.sql 인덱스 참고)
+     */
+    @Override
+    public List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold, SearchFilter filter) {
+        String vector = toVectorLiteral(embedding);
+
+        List<Object> params = new ArrayList<>();
+        params.add(vector);
+
+        StringBuilder where = new StringBuilder();
+        if (filter.department() != null) {
+            where.append(where.isEmpty() ? "WHERE " : " AND ").append("metadata->>'department' = ?");
+            params.add(filter.department());
+        }
+        if (filter.documentType() != null) {
+            where.append(where.isEmpty() ? "WHERE " : " AND ").append("metadata->>'documentType' = ?");
+            params.add(filter.documentType());
+        }
+        if (filter.scopes() != null) {
+            // schema-pgvector.sql 의 idx_vector_store_article_scope 와 같은 식
+            where.append(where.isEmpty() ? "WHERE " : " AND ").append(SCOPE_EXPRESSION).append(" = ANY (?::text[])");
+            params.add(toTextArrayLiteral(filter.scopes()));
+        }
+
+        params.add(vector);
+        params.add(topK);
+
+        List<Document> candidates = jdbcTemplate.query(searchSql(where, false), this::toDocument, params.toArray());
+        if (!where.isEmpty() && candidates.size() < topK) {
+            log.debug("Filtered HNSW scan returned {}/{} rows ({}), falling back to exact scan",
+                candidates.size(), topK, filter);
+            candidates = jdbcTemplate.query(searchSql(where, true), this::toDocument, params.toArray());
+        }
+
+        double maxDistance = 1.0 - similarityThreshold;
+        return candidates.stream()
+            .filter(document -> ((Number) document.getMetadata().get("distance")).doubleValue() < maxDistance)
+            .toList();
+    }
+
+    /**
+     * 거리순 상위 topK 조회 (유사도 임계값은 호출 측에서 적용해 필터 때문에 모자란 경우와 구분)
+     * - 기본: (필터 +) ORDER BY 거리 + LIMIT 만 사용해야 HNSW 인덱스를 탄다
+     * - exact: 정렬식을 바꿔 HNSW 인덱스를 쓰지 않음 (필터에 맞는 행 전체를 정확히 정렬)
+     */
+    private String searchSql(CharSequence where, boolean exact) {
+        return """
+            SELECT id, content, metadata, embedding <=> ?::vector AS distance
+            FROM %s
+            %s
+            ORDER BY %s
+            LIMIT ?
+            """.formatted(tableName, where, exact ? "(embedding <=> ?::vector) + 0" : "embedding <=> ?::vector");
+    }
+
+    /**
+     * 지정한 행만 원본 벡터로 정밀 재채점 (양자화 1차 검색 후보용, 기본키 조회)
+     */
+    public List<Document> rescore(float[] embedding, List<String> ids, int topK, double similarityThreshold) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = """
+            SELECT id, content, metadata, distance FROM (
+                SELECT id, content, metadata, embedding <=> ?::vector AS distance
+                FROM %s
+                WHERE id = ANY (?::uuid[])
+            ) candidates
+            WHERE distance < ?
+            ORDER BY distance
+            LIMIT ?
+            """.formatted(tableName);
+
+        return jdbcTemplate.query(sql, this::toDocument,
+            toVectorLiteral(embedding), "{" + String.join(",", ids) + "}", 1.0 - similarityThreshold, topK);
+    }
+
+    /**
+     * 기본키로 원본 임베딩 조회
+     */
+    @Override
+    public Map<String, float[]> embeddingsOf(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, float[]> embeddings = new HashMap<>();
+        jdbcTemplate.query("SELECT id::text AS id, embedding::text AS embedding FROM %s WHERE id = ANY (?::uuid[])"
+                .formatted(tableName),
+            rs -> {
+                embeddings.put(rs.getString("id"), fromVectorLiteral(rs.getString("embedding")));
+            },
+            "{" + String.join(",", ids) + "}");
+        return embeddings;
+    }
+
+    /**
+     * 임베딩 기록 - 행마다 왕복하지 않고 VALUES 여러 개를 한 문장으로 전송 (같은 ID 는 교체)
+     */
+    @Override
+    public void write(List<Document> documents, List<float[]> embeddings) {
+        for (int from = 0; from < documents.size(); from += MAX_ROWS_PER_STATEMENT) {
+            int to = Math.min(from + MAX_ROWS_PER_STATEMENT, documents.size());
+
+            String values = String.join(", ", Collections.nCopies(to - from, "(?::uuid, ?, ?::json, ?::vector)"));
+            String sql = """
+                INSERT INTO %s (id, content, metadata, embedding)
+                VALUES %s
+                ON CONFLICT (id) DO UPDATE SET
+                    content = EXCLUDED.content,
+                    metadata = EXCLUDED.metadata,
+                    embedding = EXCLUDED.embedding
+                """.formatted(tableName, values);
+
+            List<Object> params = new ArrayList<>((to - from) * 4);
+            for (int i = from; i < to; i++) {
+                Document document = documents.get(i);
+                params.add(document.getId());
+                params.add(document.getContent());
+                params.add(toJson(document.getMetadata()));
+                params.add(toVectorLiteral(embeddings.get(i)));
+            }
+            jdbcTemplate.update(sql, params.toArray());
+        }
+    }
+
+    @Override
+    public void updateMetadata(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = documents.stream()
+            .map(document -> new Object[] {toJson(document.getMetadata()), document.getId()})
+            .toList();
+        jdbcTemplate.batchUpdate("UPDATE %s SET metadata = ?::json WHERE id = ?::uuid".formatted(tableName), args);
+    }
+
+    /**
+     * 문서 단위 삭제 (metadata->>'documentId' 식 인덱스 사용)
+     */
+    @Override
+    public int deleteByDocumentId(String documentId) {
+        return jdbcTemplate.update(
+            "DELETE FROM %s WHERE metadata->>'documentId' = ?".formatted(tableName), documentId);
+    }
+
+    @Override
+    public int deleteByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+            "DELETE FROM %s WHERE id = ANY (?::uuid[])".formatted(tableName), "{" + String.join(",", ids) + "}");
+    }
+
+    @Override
+    public Set<String> existingIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT id::text FROM %s WHERE id = ANY (?::uuid[])".formatted(tableName),
+            String.class, "{" + String.join(",", ids) + "}"));
+    }
+
+    @Override
+    public List<VectorRef> listRefs() {
+        String sql = """
+            SELECT id::text AS id, metadata->>'chunkId' AS chunk_id, metadata->>'documentId' AS document_id
+            FROM %s
+            """.formatted(tableName);
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+            new VectorRef(rs.getString("id"), rs.getString("chunk_id"), rs.getString("document_id")));
+    }
+
+    private Document toDocument(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> metadata = parseMetadata(rs.getString("metadata"));
+        double distance = rs.getDouble("distance");
+        metadata.put("distance", distance);
+        metadata.put("score", 1.0 - distance);
+
+        return new Document(rs.getString("id"), rs.getString("content"), metadata);
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null || json.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return new HashMap<>(objectMapper.readValue(json, METADATA_TYPE));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse vector metadata: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize vector metadata", e);
+        }
+    }
+
+    /**
+     * float[] -> pgvector 리터럴 ('[0.1,0.2,...]')
+     */
+    static String toVectorLiteral(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 10);
+        sb.append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(embedding[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * 문자열 목록 -> PostgreSQL text[] 리터럴 (원소마다 따옴표, 역슬래시/따옴표 이스케이프)
+     */
+    static String toTextArrayLiteral(Collection<String> values) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (String value : values) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * pgvector 텍스트 표현 ('[0.1,0.2,...]') -> float[]
+     */
+    static float[] fromVectorLiteral(String text) {
+        if (text == null || text.length() < 2) {
+            return new float[0];
+        }
+        String[] parts = text.substring(1, text.length() - 1).split(",");
+        float[] vector = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            vector[i] = Float.parseFloat(parts[i]);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,279 @@
+package com.company.policyqna.vector;
+
+import com.company.policyqna.document.DocumentIndexChangedEvent;
+import com.company.policyqna.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 양자화 1차 검색 + pgvector 정밀 재채점 (rag.vector-store.quantized.enabled=true)
+ * - vector_store 임베딩을 int8 스칼라 양자화해 메모리 배열 하나에 보관 (float 대비 1/4)
+ * - 질문 벡터도 int8 로 바꿔 정수 내적으로 전체를 훑고 topK * oversample 개 후보만 남김
+ * - 후보는 pgvector 에서 기본키로 읽어 원본 벡터 코사인 거리로 다시 정렬
+ * - oversample 은 요청별로 조정 가능 (SearchFilter.oversample)
+ * - 기동 시 전체 적재, 이후 문서 변경 이벤트로 문서 단위 갱신 (적재 전에는 pgvector 로 바로 검색)
+ * - 계층 검색(rag.hierarchical.enabled)을 켜면 만들어지지 않음
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${rag.vector-store.quantized.enabled:false} and !${rag.hierarchical.enabled:false} and '${rag.vector-store.type:pgvector}' == 'pgvector'")
+@RequiredArgsConstructor
+@Slf4j
+public class QuantizedPrefilter implements VectorSearchBackend, MeterBinder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgVectorSearchRepository pgVectorSearchRepository;
+    private final PipelineMetrics metrics;
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String tableName;
+
+    @Value("${spring.ai.vectorstore.pgvector.dimensions:768}")
+    private int dimensions;
+
+    @Value("${rag.vector-store.quantized.oversample:10}")
+    private int defaultOversample;
+
+    @Value("${rag.vector-store.quantized.max-oversample:50}")
+    private int maxOversample;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 행 i 의 코드는 codes[i * dimensions, (i + 1) * dimensions), 원래 값 ≈ code * scales[i]
+    private byte[] codes = new byte[0];
+    private float[] scales = new float[0];
+    private String[] ids = new String[0];
+    private String[] documentIds = new String[0];
+    private String[] departments = new String[0];
+    private String[] documentTypes = new String[0];
+    private int size;
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            allocate(INITIAL_CAPACITY);
+            jdbcTemplate.query(selectSql(""), rs -> {
+                add(rs.getString("id"), rs.getString("document_id"), rs.getString("department"),
+                    rs.getString("document_type"), rs.getString("embedding"));
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Quantized prefilter loaded: {} vectors, {} KB (full precision {} KB)",
+            size, memoryBytes() / 1024, (long) size * dimensions * Float.BYTES / 1024);
+    }
+
+    /**
+     * 문서 변경 반영 (커밋 후 문서 단위로 교체)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentIndexChanged(DocumentIndexChangedEvent event) {
+        String documentId = String.valueOf(event.documentId());
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+            if (event.changeType() != DocumentIndexChangedEvent.ChangeType.DELETED) {
+                jdbcTemplate.query(selectSql("WHERE metadata->>'documentId' = ?"), rs -> {
+                    add(rs.getString("id"), rs.getString("document_id"), rs.getString("department"),
+                        rs.getString("document_type"), rs.getString("embedding"));
+                }, documentId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "quantized";
+    }
+
+    @Override
+    public List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold, SearchFilter filter) {
+        if (!loaded || embedding.length != dimensions) {
+            return pgVectorSearchRepository.searchByEmbedding(embedding, topK, similarityThreshold, filter);
+        }
+
+        int oversample = filter.oversample() != null ? filter.oversample() : defaultOversample;
+        int shortlist = topK * Math.max(1, Math.min(oversample, maxOversample));
+
+        List<String> candidates = metrics.time(PipelineMetrics.RAG_STAGE, "prefilter",
+            () -> shortlist(embedding, shortlist, filter));
+        return metrics.time(PipelineMetrics.RAG_STAGE, "rescore",
+            () -> pgVectorSearchRepository.rescore(embedding, candidates, topK, similarityThreshold));
+    }
+
+    @Override
+    public Map<String, float[]> embeddingsOf(Collection<String> ids) {
+        return pgVectorSearchRepository.embeddingsOf(ids);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rag.vector_store.quantized.vectors", this, prefilter -> prefilter.size)
+            .register(registry);
+        Gauge.builder("rag.vector_store.quantized.memory", this, QuantizedPrefilter::memoryBytes)
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * int8 내적으로 상위 후보 ID 선택
+     */
+    private List<String> shortlist(float[] embedding, int limit, SearchFilter filter) {
+        byte[] query = new byte[dimensions];
+        quantize(embedding, query, 0);
+
+        lock.readLock().lock();
+        try {
+            // 점수가 낮은 후보가 먼저 나오는 힙
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+            for (int row = 0; row < size; row++) {
+                if (!matches(row, filter)) {
+                    continue;
+                }
+                int base = row * dimensions;
+                int dot = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    dot += query[i] * codes[base + i];
+                }
+                // 질문 쪽 배율은 모든 행에 같으므로 순위에는 영향 없음
+                float score = dot * scales[row];
+                if (best.size() < limit) {
+                    best.add(new Candidate(row, score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Candidate(row, score));
+                }
+            }
+
+            List<String> shortlisted = new ArrayList<>(best.size());
+            for (Candidate candidate : best) {
+                shortlisted.add(ids[candidate.row()]);
+            }
+            return shortlisted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int row, SearchFilter filter) {
+        return (filter.department() == null || filter.department().equals(departments[row]))
+            && (filter.documentType() == null || filter.documentType().equals(documentTypes[row]));
+    }
+
+    // ==================== 적재 (쓰기 잠금 안에서 호출) ====================
+
+    private String selectSql(String where) {
+        return """
+            SELECT id::text AS id,
+                   metadata->>'documentId' AS document_id,
+                   metadata->>'department' AS department,
+                   metadata->>'documentType' AS document_type,
+                   embedding::text AS embedding
+            FROM %s
+            %s
+            """.formatted(tableName, where);
+    }
+
+    private void add(String id, String documentId, String department, String documentType, String embedding) {
+        float[] vector = PgVectorSearchRepository.fromVectorLiteral(embedding);
+        if (vector.length != dimensions) {
+            return;
+        }
+        if (size == ids.length) {
+            allocate(ids.length * 2);
+        }
+        scales[size] = quantize(vector, codes, size * dimensions);
+        ids[size] = id;
+        documentIds[size] = documentId;
+        departments[size] = department;
+        documentTypes[size] = documentType;
+        size++;
+    }
+
+    /**
+     * 문서의 행 제거 - 마지막 행을 빈자리로 옮겨 배열을 빽빽하게 유지
+     */
+    private void removeDocument(String documentId) {
+        int row = 0;
+        while (row < size) {
+            if (!documentId.equals(documentIds[row])) {
+                row++;
+                continue;
+            }
+            int last = size - 1;
+            if (row != last) {
+                System.arraycopy(codes, last * dimensions, codes, row * dimensions, dimensions);
+                scales[row] = scales[last];
+                ids[row] = ids[last];
+                documentIds[row] = documentIds[last];
+                departments[row] = departments[last];
+                documentTypes[row] = documentTypes[last];
+            }
+            ids[last] = null;
+            documentIds[last] = null;
+            departments[last] = null;
+            documentTypes[last] = null;
+            size--;
+        }
+    }
+
+    private void allocate(int capacity) {
+        codes = Arrays.copyOf(codes, capacity * dimensions);
+        scales = Arrays.copyOf(scales, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        documentIds = Arrays.copyOf(documentIds, capacity);
+        departments = Arrays.copyOf(departments, capacity);
+        documentTypes = Arrays.copyOf(documentTypes, capacity);
+    }
+
+    /**
+     * 단위 벡터로 정규화 후 대칭 int8 양자화 (최대 절댓값 -> 127), 배율 반환
+     */
+    private static float quantize(float[] vector, byte[] target, int offset) {
+        double norm = 0;
+        float maxAbs = 0;
+        for (float v : vector) {
+            norm += v * v;
+            maxAbs = Math.max(maxAbs, Math.abs(v));
+        }
+        if (norm == 0 || maxAbs == 0) {
+            return 0f;
+        }
+
+        float scale = (float) (maxAbs / Math.sqrt(norm) / 127.0);
+        float inverse = (float) (127.0 / maxAbs);
+        for (int i = 0; i < vector.length; i++) {
+            target[offset + i] = (byte) Math.round(vector[i] * inverse);
+        }
+        return scale;
+    }
+
+    private long memoryBytes() {
+        return codes.length + (long) scales.length * Float.BYTES;
+    }
+
+    private record Candidate(int row, float score) {}
+}
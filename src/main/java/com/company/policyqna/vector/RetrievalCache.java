@@ -0,0 +1,159 @@
+package com.company.policyqna.vector;
+
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 검색 결과 캐시
+ * - (검색어, topK, 유사도 기준, 필터) -> 벡터 검색 결과
+ * - 다른 질문이 같은 온톨로지 용어로 확장될 때 pgvector 조회를 반복하지 않음
+ * - 코퍼스 버전이 바뀌면 전체를 버림 (이전 버전으로 조회한 결과는 저장하지 않음)
+ * - 최대 크기 제한 + LRU 제거
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetrievalCache implements MeterBinder {
+
+    private final CorpusVersion corpusVersion;
+
+    @Value("${rag.retrieval-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rag.retrieval-cache.max-entries:2000}")
+    private int maxEntries;
+
+    // 접근 순서 유지 (LRU)
+    private final LinkedHashMap<Key, List<SearchResult>> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    // 현재 entries 가 속한 코퍼스 버전
+    private long entriesVersion;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * 캐시 조회 - version 은 검색을 시작하기 전에 읽은 코퍼스 버전
+     */
+    Optional<List<SearchResult>> get(Key key, long version) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        synchronized (entries) {
+            syncVersion(version);
+            List<SearchResult> results = version == entriesVersion ? entries.get(key) : null;
+            if (results != null) {
+                hits.incrementAndGet();
+                return Optional.of(results);
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * 검색 결과 저장 - 검색 중 코퍼스가 바뀌었으면 저장하지 않음
+     */
+    void put(Key key, long version, List<SearchResult> results) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (entries) {
+            syncVersion(version);
+            if (version != entriesVersion) {
+                return;
+            }
+
+            entries.put(key, List.copyOf(results));
+
+            Iterator<Map.Entry<Key, List<SearchResult>>> it = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 더 새로운 버전이 보이면 이전 버전 항목을 모두 버림
+     */
+    private void syncVersion(long version) {
+        if (version > entriesVersion) {
+            int size = entries.size();
+            entries.clear();
+            entriesVersion = version;
+            invalidations.incrementAndGet();
+            log.debug("Retrieval cache moved to corpus version {}: {} entries dropped", version, size);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("rag.retrieval_cache.requests", hits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("rag.retrieval_cache.requests", misses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("rag.retrieval_cache.evictions", evictions, AtomicLong::get)
+            .register(registry);
+        Gauge.builder("rag.retrieval_cache.size", entries, map -> {
+                synchronized (map) {
+                    return map.size();
+                }
+            })
+            .register(registry);
+        Gauge.builder("rag.corpus.version", corpusVersion, CorpusVersion::current)
+            .register(registry);
+    }
+
+    /**
+     * 캐시 통계
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("corpusVersion", corpusVersion.current());
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    /**
+     * 캐시 키 (검색어는 공백/대소문자 정규화)
+     */
+    record Key(String term, int topK, double threshold, SearchFilter filter) {
+
+        static Key of(String term, int topK, double threshold, SearchFilter filter) {
+            return new Key(EmbeddingCache.normalize(term), topK, threshold, filter);
+        }
+    }
+}
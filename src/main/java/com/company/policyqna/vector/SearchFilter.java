@@ -0,0 +1,102 @@
+package com.company.policyqna.vector;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 검색 범위 필터 (부서, 문서 유형) + 요청별 검색 정확도 옵션
+ * - 값은 SQL 파라미터(PgVectorSearchRepository) 또는 메모리 내 비교(matches)로만 쓴다 (문자열 조합 없음)
+ * - 키는 벡터 메타데이터 키와 동일
+ * - oversample: 양자화 1차 검색에서 정밀 재채점할 후보 배수 (null 이면 설정값, 클수록 재현율↑ 지연↑)
+ *   양자화 백엔드가 꺼져 있으면 요청 단계에서 null 로 비움 - 결과가 같은 요청이 캐시 키로 갈라지지 않도록
+ * - scopes: 계층 검색이 고른 조항 범위 ("문서ID|조항번호", 내부 전용 - 요청/캐시 키에는 쓰지 않음)
+ */
+public record SearchFilter(String department, String documentType, Integer oversample, Set<String> scopes) {
+
+    public static final String DEPARTMENT_KEY = "department";
+    public static final String DOCUMENT_TYPE_KEY = "documentType";
+    public static final String DOCUMENT_ID_KEY = "documentId";
+    public static final String ARTICLE_NUMBER_KEY = "articleNumber";
+
+    private static final SearchFilter NONE = new SearchFilter(null, null, null, null);
+
+    public static SearchFilter none() {
+        return NONE;
+    }
+
+    /**
+     * 요청 값으로 필터 생성 (빈 값은 무시, 문서 유형은 대문자 enum 이름으로 맞춤)
+     */
+    public static SearchFilter of(String department, String documentType) {
+        return of(department, documentType, null);
+    }
+
+    /**
+     * 정확도 옵션을 포함한 필터 생성
+     */
+    public static SearchFilter of(String department, String documentType, Integer oversample) {
+        String normalizedDepartment = blankToNull(department);
+        String normalizedType = blankToNull(documentType);
+        if (normalizedDepartment == null && normalizedType == null && oversample == null) {
+            return NONE;
+        }
+        return new SearchFilter(
+            normalizedDepartment,
+            normalizedType != null ? normalizedType.toUpperCase(Locale.ROOT) : null,
+            oversample,
+            null);
+    }
+
+    /**
+     * 같은 조건에 조항 범위를 더한 필터 (계층 검색 2단계)
+     */
+    public SearchFilter withScopes(Collection<String> scopes) {
+        return new SearchFilter(department, documentType, oversample, Set.copyOf(scopes));
+    }
+
+    /**
+     * 청크 메타데이터의 조항 범위 키 ("문서ID|조항번호", 조항이 없으면 "문서ID|")
+     */
+    public static String scopeOf(Object documentId, Object articleNumber) {
+        return documentId + "|" + (articleNumber != null ? articleNumber : "");
+    }
+
+    /**
+     * 범위 조건이 없는지 (정확도 옵션은 보지 않음)
+     */
+    public boolean isEmpty() {
+        return department == null && documentType == null && scopes == null;
+    }
+
+    /**
+     * 메타데이터가 필터 조건을 만족하는지 (메모리 내 검색 결과용)
+     */
+    public boolean matches(Map<String, Object> metadata) {
+        if (isEmpty()) {
+            return true;
+        }
+        if (metadata == null) {
+            return false;
+        }
+        return (department == null || Objects.equals(department, metadata.get(DEPARTMENT_KEY)))
+            && (documentType == null || Objects.equals(documentType, metadata.get(DOCUMENT_TYPE_KEY)))
+            && (scopes == null || scopes.contains(scopeOf(metadata.get(DOCUMENT_ID_KEY), metadata.get(ARTICLE_NUMBER_KEY))));
+    }
+
+    /**
+     * 캐시/요청 병합 키에 붙일 범위 문자열 (필터가 없으면 빈 문자열)
+     */
+    public String cacheKey() {
+        String scope = department == null && documentType == null
+            ? ""
+            : (department != null ? department : "") + "|" + (documentType != null ? documentType : "");
+        return oversample != null ? scope + "|x" + oversample : scope;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.policyqna.vector;
+
+import org.springframework.ai.document.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 미리 계산한 임베딩으로 검색하는 벡터 검색 백엔드
+ * - pgvector (기본) 또는 프로세스 내 HNSW 인덱스 (rag.vector-store.type=embedded)
+ * - 결과 Document 메타데이터에는 코사인 거리(distance)와 유사도(score)를 넣는다
+ */
+public interface VectorSearchBackend {
+
+    /**
+     * 지표 태그로 쓰는 백엔드 이름
+     */
+    String name();
+
+    List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold, SearchFilter filter);
+
+    /**
+     * 저장된 청크 임베딩 조회 (벡터 ID -> 임베딩, 없는 ID 는 빠짐)
+     */
+    Map<String, float[]> embeddingsOf(Collection<String> ids);
+}
@@ -1,16 +1,16 @@
 package com.company.policyqna.vector;
 
 import com.company.policyqna.domain.DocumentChunk;
+import com.company.policyqna.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -23,8 +23,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class VectorStoreService {
 
-    private final VectorStore vectorStore;
-    private final EmbeddingModel embeddingModel;
+    private final VectorWriter vectorWriter;
+    private final EmbeddingCache embeddingCache;
+    private final RetrievalCache retrievalCache;
+    private final CorpusVersion corpusVersion;
+    private final VectorSearchBackend vectorSearchBackend;
+    private final BulkVectorIndexer bulkVectorIndexer;
+    private final PipelineMetrics metrics;
+
+    @Qualifier("retrievalExecutor")
+    private final ExecutorService retrievalExecutor;
 
     @Value("${rag.top-k:5}")
     private int defaultTopK;
@@ -32,16 +40,28 @@ public class VectorStoreService {
     @Value("${rag.similarity-threshold:0.7}")
     private double similarityThreshold;
 
+    @Value("${rag.search.deadline-ms:3000}")
+    private long searchDeadlineMs;
+
     /**
-     * 청크들을 벡터 스토어에 인덱싱
+     * 청크들을 벡터 스토어에 인덱싱 (배치 임베딩 + 다중 행 기록, BulkVectorIndexer 참고)
+     * - 임베딩 호출이 길어지므로 트랜잭션 밖에서 호출
      */
-    public void indexChunks(List<DocumentChunk> chunks) {
+    public BulkVectorIndexer.IndexReport indexChunks(List<DocumentChunk> chunks) {
         List<Document> documents = chunks.stream()
             .map(this::toSpringAiDocument)
             .collect(Collectors.toList());
 
-        vectorStore.add(documents);
-        log.info("Indexed {} chunks to vector store", chunks.size());
+        return bulkVectorIndexer.index(documents);
+    }
+
+    /**
+     * 임베딩 없이 벡터 메타데이터만 갱신 (본문은 같고 위치/조항 정보만 바뀐 청크)
+     */
+    public void updateMetadata(List<DocumentChunk> chunks) {
+        vectorWriter.updateMetadata(chunks.stream()
+            .map(this::toSpringAiDocument)
+            .collect(Collectors.toList()));
     }
 
     /**
@@ -49,7 +69,7 @@ public class VectorStoreService {
      */
     public String indexChunk(DocumentChunk chunk) {
         Document doc = toSpringAiDocument(chunk);
-        vectorStore.add(List.of(doc));
+        bulkVectorIndexer.index(List.of(doc));
         return doc.getId();
     }
 
@@ -57,41 +77,186 @@ public class VectorStoreService {
      * 유사도 검색
      */
     public List<SearchResult> search(String query, int topK) {
-        SearchRequest request = SearchRequest.query(query)
-            .withTopK(topK > 0 ? topK : defaultTopK)
-            .withSimilarityThreshold(similarityThreshold);
+        return searchWithFilter(query, SearchFilter.none(), topK);
+    }
+
+    /**
+     * 임베딩 벡터로 유사도 검색 (임베딩 재계산 없음)
+     */
+    public List<SearchResult> searchByEmbedding(float[] embedding, int topK) {
+        return searchByEmbedding(embedding, topK, SearchFilter.none());
+    }
 
-        List<Document> results = vectorStore.similaritySearch(request);
+    /**
+     * 임베딩 벡터로 필터 범위 내 유사도 검색
+     */
+    public List<SearchResult> searchByEmbedding(float[] embedding, int topK, SearchFilter filter) {
+        List<Document> results = metrics.time(PipelineMetrics.RAG_STAGE, vectorSearchBackend.name(),
+            () -> vectorSearchBackend.searchByEmbedding(
+                embedding,
+                topK > 0 ? topK : defaultTopK,
+                similarityThreshold,
+                filter
+            ));
 
         return results.stream()
             .map(this::toSearchResult)
             .collect(Collectors.toList());
     }
 
+    /**
+     * 검색 결과 청크의 저장된 임베딩 조회 (벡터 ID -> 임베딩, 재계산 없음)
+     */
+    public Map<String, float[]> embeddingsOf(Collection<String> vectorIds) {
+        return vectorSearchBackend.embeddingsOf(vectorIds);
+    }
+
     /**
      * 확장된 검색 - 여러 쿼리 조합 (온톨로지 확장용)
+     * - 확장 쿼리 전체를 한 번의 배치 호출로 임베딩
+     * - 쿼리별 벡터 검색을 병렬 실행
+     * - 요청 단위 마감시간 초과 시 그때까지 도착한 결과만 병합
      */
     public List<SearchResult> searchWithExpansion(
             List<String> queries,
             Map<String, Double> weights,
+            int topK,
+            SearchFilter filter) {
+
+        return mergeWeighted(searchTerms(queries, topK, searchDeadlineMs, filter), weights, topK);
+    }
+
+    /**
+     * 여러 검색어를 한 번에 검색 (중복 검색어는 한 번만 검색)
+     * - 임베딩은 배치 호출, 벡터 검색은 병렬 실행
+     * - 마감시간 초과 시 그때까지 도착한 결과만 반환
+     */
+    public Map<String, List<SearchResult>> searchTerms(
+            Collection<String> terms,
+            int topK,
+            long deadlineMs,
+            SearchFilter filter) {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        long version = corpusVersion.current();
+        int k = topK > 0 ? topK : defaultTopK;
+
+        List<String> uniqueTerms = terms.stream().distinct().collect(Collectors.toList());
+        if (uniqueTerms.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // 캐시된 검색어는 임베딩/벡터 검색 모두 생략
+        Map<String, List<SearchResult>> resultsByTerm = new LinkedHashMap<>();
+        List<String> uncachedTerms = new ArrayList<>();
+        for (String term : uniqueTerms) {
+            retrievalCache.get(RetrievalCache.Key.of(term, k, similarityThreshold, filter), version)
+                .ifPresentOrElse(cached -> resultsByTerm.put(term, cached), () -> uncachedTerms.add(term));
+        }
+        if (uncachedTerms.isEmpty()) {
+            return resultsByTerm;
+        }
+
+        List<float[]> embeddings = metrics.time(PipelineMetrics.RAG_STAGE, "embedding",
+            () -> embeddingCache.embedAll(uncachedTerms));
+
+        Map<String, Future<List<SearchResult>>> futures = new LinkedHashMap<>();
+        int timedOut = 0;
+        for (int i = 0; i < uncachedTerms.size(); i++) {
+            float[] embedding = embeddings.get(i);
+            Future<List<SearchResult>> future = submitSearch(() -> searchByEmbedding(embedding, k, filter), futures.values(), deadline);
+            if (future != null) {
+                futures.put(uncachedTerms.get(i), future);
+            } else {
+                timedOut++;
+            }
+        }
+
+        for (Map.Entry<String, Future<List<SearchResult>>> entry : futures.entrySet()) {
+            String term = entry.getKey();
+            Future<List<SearchResult>> future = entry.getValue();
+
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                List<SearchResult> results = future.get(remaining, TimeUnit.NANOSECONDS);
+                resultsByTerm.put(term, results);
+                retrievalCache.put(RetrievalCache.Key.of(term, k, similarityThreshold, filter), version, results);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut++;
+            } catch (ExecutionException e) {
+                log.warn("Expansion search failed for '{}': {}", term, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(f -> f.cancel(true));
+                break;
+            }
+        }
+
+        if (timedOut > 0) {
+            log.warn("Expansion search deadline ({}ms) exceeded: {}/{} queries dropped",
+                deadlineMs, timedOut, uncachedTerms.size());
+        }
+        return resultsByTerm;
+    }
+
+    /**
+     * 검색 실행기에 제출 - 대기열이 가득 차면 이 호출이 먼저 제출한 검색이 끝나길 기다렸다가 다시 제출
+     * 먼저 제출한 검색이 없거나 마감시간이 지나면 null (시간 초과와 같이 버림)
+     */
+    private Future<List<SearchResult>> submitSearch(
+            Callable<List<SearchResult>> search,
+            Collection<Future<List<SearchResult>>> submitted,
+            long deadline) {
+
+        while (true) {
+            try {
+                return retrievalExecutor.submit(search);
+            } catch (RejectedExecutionException e) {
+                metrics.count("rag.search.rejected");
+                Optional<Future<List<SearchResult>>> pending = submitted.stream().filter(f -> !f.isDone()).findFirst();
+                long remaining = deadline - System.nanoTime();
+                if (pending.isEmpty() || remaining <= 0) {
+                    return null;
+                }
+                try {
+                    pending.get().get(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                } catch (ExecutionException | TimeoutException | CancellationException ignored) {
+                    // 결과/실패는 아래 수집 단계에서 처리
+                }
+            }
+        }
+    }
+
+    /**
+     * 검색어별 결과를 가중치로 병합 후 상위 K개 반환
+     * - 같은 청크가 여러 검색어에 걸리면 가중 점수 중 최댓값 사용
+     *   (합산하면 동의어가 많은 청크가 더 관련 있는 청크를 밀어냄)
+     */
+    public List<SearchResult> mergeWeighted(
+            Map<String, List<SearchResult>> resultsByTerm,
+            Map<String, Double> weights,
             int topK) {
 
         Map<String, SearchResult> resultMap = new HashMap<>();
 
-        for (String query : queries) {
-            double weight = weights.getOrDefault(query, 1.0);
-            List<SearchResult> queryResults = search(query, topK);
-
-            for (SearchResult result : queryResults) {
+        for (Map.Entry<String, List<SearchResult>> entry : resultsByTerm.entrySet()) {
+            double weight = weights.getOrDefault(entry.getKey(), 1.0);
+            for (SearchResult result : entry.getValue()) {
                 String key = result.getChunkId();
+                double weightedScore = result.getScore() * weight;
                 if (resultMap.containsKey(key)) {
                     // 기존 결과와 점수 병합
                     SearchResult existing = resultMap.get(key);
-                    double newScore = existing.getScore() + (result.getScore() * weight);
-                    resultMap.put(key, existing.toBuilder().score(newScore).build());
+                    if (weightedScore > existing.getScore()) {
+                        resultMap.put(key, existing.toBuilder().score(weightedScore).build());
+                    }
                 } else {
                     resultMap.put(key, result.toBuilder()
-                        .score(result.getScore() * weight)
+                        .score(weightedScore)
                         .build());
                 }
             }
@@ -106,44 +271,57 @@ public class VectorStoreService {
 
     /**
      * 필터링 검색 (문서 타입, 부서 등)
+     * - 같은 검색 조건의 결과가 캐시에 있으면 재사용 (코퍼스 버전이 같을 때만)
+     * - 질문 임베딩은 캐시를 거쳐 계산 (답변 캐시 조회에서 이미 계산한 경우 재사용)
+     * - 필터 값은 바인딩 파라미터로 전달 (문자열로 조합하지 않음)
      */
     public List<SearchResult> searchWithFilter(
             String query,
-            Map<String, Object> filters,
+            SearchFilter filter,
             int topK) {
 
-        // Spring AI의 filter expression 사용
-        StringBuilder filterExpression = new StringBuilder();
-        List<String> conditions = new ArrayList<>();
-
-        for (Map.Entry<String, Object> entry : filters.entrySet()) {
-            conditions.add(String.format("%s == '%s'", entry.getKey(), entry.getValue()));
+        long version = corpusVersion.current();
+        RetrievalCache.Key key = RetrievalCache.Key.of(query, topK > 0 ? topK : defaultTopK, similarityThreshold, filter);
+        Optional<List<SearchResult>> cached = retrievalCache.get(key, version);
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
-        if (!conditions.isEmpty()) {
-            filterExpression.append(String.join(" && ", conditions));
-        }
+        float[] embedding = metrics.time(PipelineMetrics.RAG_STAGE, "embedding",
+            () -> embeddingCache.embed(query));
+        List<SearchResult> results = searchByEmbedding(embedding, key.topK(), filter);
+        retrievalCache.put(key, version, results);
+        return results;
+    }
 
-        SearchRequest request = SearchRequest.query(query)
-            .withTopK(topK)
-            .withSimilarityThreshold(similarityThreshold)
-            .withFilterExpression(filterExpression.length() > 0 ? filterExpression.toString() : null);
+    /**
+     * 문서ID로 벡터 삭제 (메타데이터 documentId 기준 - vectorId 가 없는 예전 청크의 벡터도 함께 삭제)
+     */
+    public int deleteByDocumentId(Long documentId) {
+        int deleted = vectorWriter.deleteByDocumentId(String.valueOf(documentId));
+        log.info("Deleted {} vectors for document: {}", deleted, documentId);
+        return deleted;
+    }
 
-        List<Document> results = vectorStore.similaritySearch(request);
+    /**
+     * 벡터 ID 목록으로 삭제
+     */
+    public int deleteByIds(List<String> vectorIds) {
+        return vectorWriter.deleteByIds(vectorIds);
+    }
 
-        return results.stream()
-            .map(this::toSearchResult)
-            .collect(Collectors.toList());
+    /**
+     * 주어진 벡터 ID 중 벡터 스토어에 있는 ID
+     */
+    public Set<String> existingVectorIds(Collection<String> vectorIds) {
+        return vectorWriter.existingIds(vectorIds);
     }
 
     /**
-     * 문서ID로 벡터 삭제
+     * 저장된 벡터의 청크/문서 참조 목록 (고아 벡터 정리용)
      */
-    public void deleteByDocumentId(Long documentId) {
-        // PGVector에서는 metadata 기반 삭제 필요
-        // 실제 구현은 VectorStore 구현체에 따라 다름
-        vectorStore.delete(List.of("documentId:" + documentId));
-        log.info("Deleted vectors for document: {}", documentId);
+    public List<VectorWriter.VectorRef> listVectorRefs() {
+        return vectorWriter.listRefs();
     }
 
     /**
@@ -166,8 +344,13 @@ public class VectorStoreService {
             metadata.putAll(chunk.getMetadata());
         }
 
+        // 청크에 저장된 벡터 ID 사용 (삭제/정리 시 청크와 벡터를 연결)
+        if (chunk.getVectorId() == null) {
+            chunk.setVectorId(UUID.randomUUID().toString());
+        }
+
         return new Document(
-            UUID.randomUUID().toString(),
+            chunk.getVectorId(),
             chunk.getContent(),
             metadata
         );
@@ -181,6 +364,7 @@ public class VectorStoreService {
 
         return SearchResult.builder()
             .chunkId(String.valueOf(metadata.get("chunkId")))
+            .vectorId(doc.getId())
             .content(doc.getContent())
             .score(getScoreFromMetadata(metadata))
             .documentId(getLongFromMetadata(metadata, "documentId"))
@@ -188,6 +372,7 @@ public class VectorStoreService {
             .documentCode((String) metadata.get("documentCode"))
             .sectionTitle((String) metadata.get("sectionTitle"))
             .articleNumber((String) metadata.get("articleNumber"))
+            .chunkIndex(getIntegerFromMetadata(metadata, "chunkIndex"))
             .metadata(metadata)
             .build();
     }
@@ -197,6 +382,11 @@ public class VectorStoreService {
         if (score instanceof Number) {
             return ((Number) score).doubleValue();
         }
+        // PgVectorStore 는 코사인 거리만 넣어준다
+        Object distance = metadata.get("distance");
+        if (distance instanceof Number) {
+            return 1.0 - ((Number) distance).doubleValue();
+        }
         return 0.0;
     }
 
@@ -205,13 +395,27 @@ public class VectorStoreService {
         if (value instanceof Number) {
             return ((Number) value).longValue();
         }
+        // 메타데이터에는 숫자 ID 를 문자열로 저장한다
+        if (value instanceof String str && !str.isEmpty() && !"null".equals(str)) {
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
         return null;
     }
 
+    private Integer getIntegerFromMetadata(Map<String, Object> metadata, String key) {
+        Long value = getLongFromMetadata(metadata, key);
+        return value != null ? value.intValue() : null;
+    }
+
     @lombok.Builder(toBuilder = true)
     @lombok.Getter
     public static class SearchResult {
         private String chunkId;
+        private String vectorId;
         private String content;
         private double score;
         private Long documentId;
@@ -219,6 +423,7 @@ public class VectorStoreService {
         private String documentCode;
         private String sectionTitle;
         private String articleNumber;
+        private Integer chunkIndex;
         private Map<String, Object> metadata;
 
         /**
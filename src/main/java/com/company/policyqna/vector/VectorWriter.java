@@ -0,0 +1,46 @@
+package com.company.policyqna.vector;
+
+import org.springframework.ai.document.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 벡터 스토어 기록/삭제 (일괄 인덱싱, 문서 단위 삭제, 고아 벡터 정리용)
+ * - pgvector (기본, 다중 행 INSERT) 또는 프로세스 내 HNSW 인덱스 (rag.vector-store.type=embedded)
+ */
+public interface VectorWriter {
+
+    /**
+     * 미리 계산한 임베딩 기록 - embeddings.get(i) 는 documents.get(i) 의 임베딩
+     */
+    void write(List<Document> documents, List<float[]> embeddings);
+
+    /**
+     * 본문/임베딩은 그대로 두고 메타데이터만 교체 (재인덱싱 시 위치만 바뀐 청크)
+     */
+    void updateMetadata(List<Document> documents);
+
+    /**
+     * 메타데이터 documentId 가 같은 벡터 전체 삭제, 삭제 건수 반환
+     */
+    int deleteByDocumentId(String documentId);
+
+    /**
+     * ID 목록으로 삭제, 삭제 건수 반환
+     */
+    int deleteByIds(List<String> ids);
+
+    /**
+     * 주어진 ID 중 실제로 저장된 ID (임베딩은 읽지 않음 - 재인덱싱 시 벡터 누락 확인용)
+     */
+    Set<String> existingIds(Collection<String> ids);
+
+    /**
+     * 저장된 벡터의 ID 와 원본 청크/문서 참조 (본문/임베딩 제외)
+     */
+    List<VectorRef> listRefs();
+
+    record VectorRef(String id, String chunkId, String documentId) {}
+}
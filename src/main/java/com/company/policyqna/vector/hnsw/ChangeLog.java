@@ -0,0 +1,180 @@
+package com.company.policyqna.vector.hnsw;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 임베디드 벡터 스토어 변경 로그 (changes.log)
+ * - 추가/삭제/메타데이터 교체를 파일 끝에 덧붙이고 한 번 동기화 - 기록 비용이 변경 건수에 비례
+ * - 체크포인트(documents.json + graph.bin 전체 기록) 후 비우고, 재기동 시 체크포인트 위에 다시 적용
+ * - 기록 도중 중단되어 잘린 마지막 레코드는 읽을 때 버림
+ * 스레드 안전하지 않음 - 호출하는 쪽의 쓰기 잠금 안에서 사용
+ */
+@Slf4j
+class ChangeLog implements Closeable {
+
+    private static final TypeReference<HashMap<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    private int count;
+
+    private ChangeLog(Path file, FileChannel channel, ObjectMapper objectMapper) {
+        this.file = file;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+    }
+
+    static ChangeLog open(Path file, ObjectMapper objectMapper) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new ChangeLog(file, channel, objectMapper);
+    }
+
+    /**
+     * 마지막 체크포인트 이후 변경 전체 (잘린 마지막 레코드는 잘라 내고 제외)
+     */
+    List<Change> readAll() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        List<Change> changes = new ArrayList<>();
+        long valid = 0;
+        try {
+            while (in.available() > 0) {
+                changes.add(readChange(in));
+                valid = bytes.length - in.available();
+            }
+        } catch (EOFException e) {
+            log.warn("Discarding truncated change log record at offset {} of {}", valid, file);
+        }
+
+        channel.truncate(valid);
+        channel.position(valid);
+        count = changes.size();
+        return changes;
+    }
+
+    /**
+     * 변경 묶음을 덧붙이고 디스크 동기화
+     */
+    void append(List<Change> changes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        for (Change change : changes) {
+            writeChange(out, change);
+        }
+        out.flush();
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+        count += changes.size();
+    }
+
+    /**
+     * 체크포인트 후 비움
+     */
+    void clear() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+        count = 0;
+    }
+
+    /**
+     * 마지막 체크포인트 이후 기록한 변경 건수
+     */
+    int size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeChange(DataOutputStream out, Change change) throws IOException {
+        out.writeByte(change.type().ordinal());
+        writeString(out, change.id());
+        if (change.type() == Type.DELETE) {
+            return;
+        }
+        writeString(out, objectMapper.writeValueAsString(change.metadata()));
+        if (change.type() == Type.ADD) {
+            writeString(out, change.content());
+            out.writeInt(change.vector().length);
+            for (float value : change.vector()) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    private Change readChange(DataInputStream in) throws IOException {
+        Type type = Type.values()[in.readUnsignedByte()];
+        String id = readString(in);
+        if (type == Type.DELETE) {
+            return Change.delete(id);
+        }
+        Map<String, Object> metadata = objectMapper.readValue(readString(in), METADATA_TYPE);
+        if (type == Type.METADATA) {
+            return Change.metadata(id, metadata);
+        }
+        String content = readString(in);
+        float[] vector = new float[in.readInt()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = in.readFloat();
+        }
+        return Change.add(id, content, metadata, vector);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        out.writeInt(bytes != null ? bytes.length : -1);
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    enum Type { ADD, DELETE, METADATA }
+
+    record Change(Type type, String id, String content, Map<String, Object> metadata, float[] vector) {
+
+        static Change add(String id, String content, Map<String, Object> metadata, float[] vector) {
+            return new Change(Type.ADD, id, content, metadata, vector);
+        }
+
+        static Change delete(String id) {
+            return new Change(Type.DELETE, id, null, null, null);
+        }
+
+        static Change metadata(String id, Map<String, Object> metadata) {
+            return new Change(Type.METADATA, id, null, metadata, null);
+        }
+    }
+}
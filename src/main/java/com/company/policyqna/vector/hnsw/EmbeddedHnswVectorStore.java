@@ -0,0 +1,585 @@
+package com.company.policyqna.vector.hnsw;
+
+import com.company.policyqna.vector.SearchFilter;
+import com.company.policyqna.vector.VectorSearchBackend;
+import com.company.policyqna.vector.VectorWriter;
+import com.company.policyqna.vector.hnsw.ChangeLog.Change;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 프로세스 내 HNSW 벡터 스토어 (rag.vector-store.type=embedded)
+ * - pgvector 없이 운영하는 지점 배포용, 검색이 JDBC 왕복 없이 메모리 접근으로 끝난다
+ * - PgVectorStore 자동 설정은 embedded-vector 프로필에서 제외한다 (application.yml, VectorStore 빈 중복 방지)
+ * - 벡터/그래프는 HnswIndex, 본문/메타데이터는 documents.json 에 저장
+ * - 변경은 changes.log 에 덧붙이고 checkpoint-interval 건마다 전체 파일 기록 (재기동 시 로그를 다시 적용)
+ * - 삭제 비율이 높아지면 백그라운드에서 새 세대 인덱스를 만들고 쓰기 잠금 안에서는 교체만 한다
+ */
+@Component
+@ConditionalOnProperty(name = "rag.vector-store.type", havingValue = "embedded")
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddedHnswVectorStore implements VectorStore, VectorSearchBackend, VectorWriter, MeterBinder {
+
+    private static final TypeReference<LinkedHashMap<String, StoredDocument>> DOCUMENTS_TYPE = new TypeReference<>() {};
+    private static final String DOCUMENTS_FILE = "documents.json";
+    private static final String LOG_FILE = "changes.log";
+    // 재구성 시 한 번의 읽기 잠금으로 복사하는 노드 수
+    private static final int COMPACTION_BATCH = 1024;
+
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+
+    @Value("${rag.vector-store.embedded.path:./data/vector-index}")
+    private String path;
+
+    @Value("${rag.vector-store.embedded.dimensions:768}")
+    private int dimensions;
+
+    // 노드당 이웃 수 (0 계층은 2배)
+    @Value("${rag.vector-store.embedded.m:16}")
+    private int m;
+
+    @Value("${rag.vector-store.embedded.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${rag.vector-store.embedded.ef-search:64}")
+    private int efSearch;
+
+    // 삭제 표시된 노드 비율이 이 값을 넘으면 백그라운드에서 인덱스 재구성
+    @Value("${rag.vector-store.embedded.compaction-ratio:0.3}")
+    private double compactionRatio;
+
+    // 변경 로그가 이 건수를 넘으면 documents.json/graph.bin 전체 기록 후 로그 비움
+    @Value("${rag.vector-store.embedded.checkpoint-interval:5000}")
+    private int checkpointInterval;
+
+    @Value("${rag.search.embedding-batch-size:64}")
+    private int embeddingBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hnsw-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Path directory;
+    private HnswIndex index;
+    private ChangeLog changeLog;
+    private Map<String, StoredDocument> documents = new LinkedHashMap<>();
+    // 재구성 중일 때만 non-null - 스냅샷 이후 변경을 모았다가 교체 직전에 새 인덱스에 적용
+    private List<Change> compactionBacklog;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = Paths.get(path);
+        index = HnswIndex.open(directory, dimensions, m, efConstruction);
+
+        Path documentsFile = directory.resolve(DOCUMENTS_FILE);
+        if (Files.exists(documentsFile)) {
+            documents = objectMapper.readValue(documentsFile.toFile(), DOCUMENTS_TYPE);
+        }
+
+        // 저장 도중 중단된 경우 - 본문이 없는 노드는 삭제, 벡터가 없는 본문은 버림
+        for (int node = 0; node < index.size(); node++) {
+            String id = index.idOf(node);
+            if (!documents.containsKey(id)) {
+                index.delete(id);
+            }
+        }
+        documents.keySet().removeIf(id -> !index.contains(id));
+
+        // 마지막 체크포인트 이후 변경 다시 적용
+        changeLog = ChangeLog.open(directory.resolve(LOG_FILE), objectMapper);
+        List<Change> changes = changeLog.readAll();
+        changes.forEach(this::apply);
+
+        log.info("Embedded HNSW vector store opened at {}: {} vectors ({} deleted, {} changes replayed)",
+            directory.toAbsolutePath(), index.liveCount(), index.deletedCount(), changes.size());
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        // 진행 중인 재구성은 중단 (새 세대 파일은 버려지고 다음 기동에서 다시 판단)
+        compactor.shutdownNow();
+        compactor.awaitTermination(30, TimeUnit.SECONDS);
+
+        lock.writeLock().lock();
+        try {
+            checkpoint();
+            changeLog.close();
+            index.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "hnsw";
+    }
+
+    /**
+     * 문서 임베딩 후 인덱스에 추가 (같은 ID 는 교체)
+     */
+    @Override
+    public void add(List<Document> documentsToAdd) {
+        if (documentsToAdd.isEmpty()) {
+            return;
+        }
+
+        // 임베딩은 잠금 밖에서 계산
+        List<String> contents = documentsToAdd.stream().map(Document::getContent).toList();
+        List<float[]> embeddings = new ArrayList<>(contents.size());
+        for (int from = 0; from < contents.size(); from += embeddingBatchSize) {
+            int to = Math.min(from + embeddingBatchSize, contents.size());
+            embeddings.addAll(embeddingModel.embed(contents.subList(from, to)));
+        }
+
+        write(documentsToAdd, embeddings);
+    }
+
+    /**
+     * 미리 계산한 임베딩으로 추가 (일괄 인덱싱 경로, 같은 ID 는 교체)
+     */
+    @Override
+    public void write(List<Document> documentsToAdd, List<float[]> embeddings) {
+        List<Change> changes = new ArrayList<>(documentsToAdd.size());
+        for (int i = 0; i < documentsToAdd.size(); i++) {
+            Document document = documentsToAdd.get(i);
+            changes.add(Change.add(document.getId(), document.getContent(),
+                new HashMap<>(document.getMetadata()), embeddings.get(i)));
+        }
+
+        lock.writeLock().lock();
+        try {
+            commit(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Added {} documents to embedded vector store", documentsToAdd.size());
+    }
+
+    @Override
+    public void updateMetadata(List<Document> documentsToUpdate) {
+        lock.writeLock().lock();
+        try {
+            commit(documentsToUpdate.stream()
+                .filter(document -> documents.containsKey(document.getId()))
+                .map(document -> Change.metadata(document.getId(), new HashMap<>(document.getMetadata())))
+                .toList());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> idList) {
+        return Optional.of(deleteByIds(idList) == idList.size());
+    }
+
+    @Override
+    public int deleteByIds(List<String> ids) {
+        lock.writeLock().lock();
+        try {
+            return remove(ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteByDocumentId(String documentId) {
+        lock.writeLock().lock();
+        try {
+            List<String> ids = documents.entrySet().stream()
+                .filter(entry -> documentId.equals(String.valueOf(entry.getValue().metadata().get("documentId"))))
+                .map(Map.Entry::getKey)
+                .toList();
+            return remove(ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> existingIds(Collection<String> ids) {
+        lock.readLock().lock();
+        try {
+            Set<String> existing = new HashSet<>();
+            for (String id : ids) {
+                if (index.contains(id)) {
+                    existing.add(id);
+                }
+            }
+            return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<VectorRef> listRefs() {
+        lock.readLock().lock();
+        try {
+            List<VectorRef> refs = new ArrayList<>(documents.size());
+            documents.forEach((id, document) -> refs.add(new VectorRef(id,
+                stringOrNull(document.metadata().get("chunkId")),
+                stringOrNull(document.metadata().get("documentId")))));
+            return refs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] embedding = embeddingModel.embed(request.getQuery());
+        Predicate<Map<String, Object>> predicate = request.getFilterExpression() != null
+            ? metadata -> matches(request.getFilterExpression(), metadata)
+            : null;
+        return search(embedding, request.getTopK(), request.getSimilarityThreshold(), predicate);
+    }
+
+    @Override
+    public List<Document> searchByEmbedding(float[] embedding, int topK, double similarityThreshold, SearchFilter filter) {
+        return search(embedding, topK, similarityThreshold, filter.isEmpty() ? null : filter::matches);
+    }
+
+    @Override
+    public Map<String, float[]> embeddingsOf(Collection<String> ids) {
+        lock.readLock().lock();
+        try {
+            Map<String, float[]> embeddings = new HashMap<>();
+            for (String id : ids) {
+                float[] vector = index.vectorOf(id);
+                if (vector != null) {
+                    embeddings.put(id, vector);
+                }
+            }
+            return embeddings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rag.vector_store.embedded.nodes", this, store -> store.read(store.index::liveCount))
+            .tag("state", "live")
+            .register(registry);
+        Gauge.builder("rag.vector_store.embedded.nodes", this, store -> store.read(store.index::deletedCount))
+            .tag("state", "deleted")
+            .register(registry);
+        Gauge.builder("rag.vector_store.embedded.mapped", this, store -> store.read(store.index::mappedBytes))
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * 근사 검색 후 필터 때문에 k 개를 못 채우면 전체 스캔으로 다시 검색
+     */
+    private List<Document> search(float[] embedding, int topK, double similarityThreshold,
+                                  Predicate<Map<String, Object>> predicate) {
+        lock.readLock().lock();
+        try {
+            IntPredicate accept = predicate == null
+                ? node -> true
+                : node -> {
+                    StoredDocument document = documents.get(index.idOf(node));
+                    return document != null && predicate.test(document.metadata());
+                };
+
+            List<HnswIndex.Scored> found = index.search(embedding, topK, Math.max(efSearch, topK), accept);
+            if (found.size() < Math.min(topK, index.liveCount())) {
+                found = index.exactSearch(embedding, topK, accept);
+            }
+
+            List<Document> results = new ArrayList<>(found.size());
+            for (HnswIndex.Scored scored : found) {
+                if (scored.score() <= similarityThreshold) {
+                    continue;
+                }
+                String id = index.idOf(scored.node());
+                StoredDocument document = documents.get(id);
+                Map<String, Object> metadata = new HashMap<>(document.metadata());
+                metadata.put("distance", 1.0 - scored.score());
+                metadata.put("score", (double) scored.score());
+                results.add(new Document(id, document.content(), metadata));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 노드 삭제 (쓰기 잠금 안에서 호출), 삭제 건수 반환
+     */
+    private int remove(Collection<String> ids) {
+        int removed = (int) ids.stream().filter(index::contains).count();
+        commit(ids.stream()
+            .filter(id -> index.contains(id) || documents.containsKey(id))
+            .map(Change::delete)
+            .toList());
+        return removed;
+    }
+
+    /**
+     * 변경을 로그에 기록한 뒤 메모리에 적용 (쓰기 잠금 안에서 호출)
+     * 로그가 checkpoint-interval 건을 넘으면 체크포인트, 삭제 비율이 높으면 재구성 예약
+     */
+    private void commit(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            changeLog.append(changes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append embedded vector store change log", e);
+        }
+        changes.forEach(this::apply);
+        if (compactionBacklog != null) {
+            compactionBacklog.addAll(changes);
+        }
+
+        if (changeLog.size() >= checkpointInterval) {
+            checkpoint();
+        }
+        if (compactionBacklog == null && index.size() > 0
+            && (double) index.deletedCount() / index.size() > compactionRatio) {
+            scheduleCompaction();
+        }
+    }
+
+    private void apply(Change change) {
+        switch (change.type()) {
+            case ADD -> {
+                index.add(change.id(), change.vector());
+                documents.put(change.id(), new StoredDocument(change.content(), change.metadata()));
+            }
+            case DELETE -> {
+                index.delete(change.id());
+                documents.remove(change.id());
+            }
+            case METADATA -> documents.computeIfPresent(change.id(),
+                (id, stored) -> new StoredDocument(stored.content(), change.metadata()));
+        }
+    }
+
+    /**
+     * 본문 파일과 그래프 파일 전체 기록 후 변경 로그 비움 (쓰기 잠금 안에서 호출)
+     */
+    private void checkpoint() {
+        try {
+            Path tmp = directory.resolve(DOCUMENTS_FILE + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), documents);
+            Files.move(tmp, directory.resolve(DOCUMENTS_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.save();
+            changeLog.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint embedded vector store", e);
+        }
+    }
+
+    /**
+     * 살아 있는 노드 스냅샷을 잡고 재구성 시작 (쓰기 잠금 안에서 호출)
+     */
+    private void scheduleCompaction() {
+        HnswIndex source = index;
+        int[] nodes = source.liveNodes();
+        compactionBacklog = new ArrayList<>();
+        log.info("Compacting embedded HNSW index in background: {} live of {} nodes", nodes.length, source.size());
+        compactor.execute(() -> compact(source, nodes));
+    }
+
+    /**
+     * 새 세대 인덱스에 살아 있는 노드를 옮겨 담은 뒤 교체
+     * - 그래프 구성은 잠금 밖에서, 벡터 복사는 묶음마다 읽기 잠금으로 (검색/기록을 막지 않음)
+     * - 쓰기 잠금 안에서는 스냅샷 이후 변경 적용, 교체, 체크포인트만 한다
+     */
+    private void compact(HnswIndex source, int[] nodes) {
+        HnswIndex next = null;
+        try {
+            next = HnswIndex.create(directory, source.generation() + 1, dimensions, m, efConstruction);
+            for (int from = 0; from < nodes.length; from += COMPACTION_BATCH) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Compaction cancelled");
+                }
+                int[] batch = Arrays.copyOfRange(nodes, from, Math.min(from + COMPACTION_BATCH, nodes.length));
+                List<String> ids = new ArrayList<>(batch.length);
+                List<float[]> vectors = new ArrayList<>(batch.length);
+                lock.readLock().lock();
+                try {
+                    for (int node : batch) {
+                        ids.add(source.idOf(node));
+                        vectors.add(source.vectorAt(node));
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                for (int i = 0; i < batch.length; i++) {
+                    next.add(ids.get(i), vectors.get(i));
+                }
+            }
+            swap(source, next);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Embedded HNSW compaction abandoned: {}", e.toString());
+            lock.writeLock().lock();
+            try {
+                compactionBacklog = null;
+                if (next != null && index != next) {
+                    next.discard();
+                }
+            } catch (IOException discardFailure) {
+                log.warn("Failed to discard compacted HNSW index: {}", discardFailure.toString());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void swap(HnswIndex source, HnswIndex next) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Change change : compactionBacklog) {
+                switch (change.type()) {
+                    case ADD -> next.add(change.id(), change.vector());
+                    case DELETE -> next.delete(change.id());
+                    case METADATA -> { }
+                }
+            }
+
+            // 체크포인트가 실패하면 이전 세대로 되돌림 (이전 인덱스에도 같은 변경이 적용되어 있음)
+            index = next;
+            try {
+                checkpoint();
+            } catch (UncheckedIOException e) {
+                index = source;
+                throw e;
+            }
+            compactionBacklog = null;
+            source.discard();
+            log.info("Embedded HNSW index compacted to generation {}: {} vectors", next.generation(), next.liveCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T extends Number> double read(Supplier<T> value) {
+        lock.readLock().lock();
+        try {
+            return value.get().doubleValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Spring AI 필터 표현식 평가 (EQ, NE, GT, GTE, LT, LTE, IN, NIN, AND, OR, NOT)
+     * 메타데이터는 문자열로 저장하므로 값은 문자열로 비교한다 (크기 비교는 양쪽이 숫자면 숫자로).
+     */
+    private static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return matches(group.content(), metadata);
+        }
+        if (!(operand instanceof Filter.Expression expression)) {
+            throw new IllegalArgumentException("Unsupported filter operand: " + operand);
+        }
+
+        return switch (expression.type()) {
+            case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+            case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+            case NOT -> !matches(expression.left(), metadata);
+            case EQ -> Objects.equals(valueOf(metadata, expression), String.valueOf(literal(expression)));
+            case NE -> !Objects.equals(valueOf(metadata, expression), String.valueOf(literal(expression)));
+            case IN -> literals(expression).contains(valueOf(metadata, expression));
+            case NIN -> !literals(expression).contains(valueOf(metadata, expression));
+            case GT, GTE, LT, LTE -> compares(expression, metadata);
+            default -> throw new UnsupportedOperationException(
+                "Filter operator not supported by embedded vector store: " + expression.type());
+        };
+    }
+
+    /**
+     * 크기 비교 - 양쪽이 모두 숫자로 읽히면 숫자로, 아니면 문자열 순서로 (값이 없으면 불일치)
+     */
+    private static boolean compares(Filter.Expression expression, Map<String, Object> metadata) {
+        String value = valueOf(metadata, expression);
+        if (value == null) {
+            return false;
+        }
+        int order = compare(value, String.valueOf(literal(expression)));
+        return switch (expression.type()) {
+            case GT -> order > 0;
+            case GTE -> order >= 0;
+            case LT -> order < 0;
+            default -> order <= 0;
+        };
+    }
+
+    private static int compare(String value, String literal) {
+        try {
+            return new BigDecimal(value.trim()).compareTo(new BigDecimal(literal.trim()));
+        } catch (NumberFormatException e) {
+            return value.compareTo(literal);
+        }
+    }
+
+    private static String stringOrNull(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static String valueOf(Map<String, Object> metadata, Filter.Expression expression) {
+        Object value = metadata.get(((Filter.Key) expression.left()).key());
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static Object literal(Filter.Expression expression) {
+        return ((Filter.Value) expression.right()).value();
+    }
+
+    private static List<String> literals(Filter.Expression expression) {
+        Object value = literal(expression);
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).toList();
+        }
+        return List.of(String.valueOf(value));
+    }
+
+    record StoredDocument(String content, Map<String, Object> metadata) {}
+}
@@ -0,0 +1,528 @@
+package com.company.policyqna.vector.hnsw;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW 근사 최근접 이웃 그래프
+ * - 벡터는 단위 벡터로 정규화해 메모리 매핑 파일(vectors-N.bin)에 저장, 유사도 = 내적
+ * - 계층별 이웃 목록은 힙에 두고 save() 로 graph.bin 에 기록 (임시 파일 작성 후 교체)
+ * - 삭제는 표시만 하고 탐색 경로로는 계속 사용, 삭제 비율이 높아지면 살아 있는 노드만 새 세대(create)로 옮겨 재구성
+ * 스레드 안전하지 않음 - 호출하는 쪽에서 읽기/쓰기 잠금
+ */
+@Slf4j
+class HnswIndex implements Closeable {
+
+    private static final int MAGIC = 0x484E5357;  // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_LEVEL = 16;
+    private static final int[] NO_LINKS = new int[0];
+    private static final String GRAPH_FILE = "graph.bin";
+
+    private final Path directory;
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random();
+
+    // 벡터 파일 세대 - 재구성은 새 세대 파일에 쓰고 graph.bin 교체 후 이전 파일을 지운다
+    private int generation;
+    private FileChannel vectorChannel;
+    private MappedByteBuffer vectorBuffer;
+    private FloatBuffer vectors;
+    private int capacity;
+
+    private int size;
+    private final List<String> ids = new ArrayList<>();
+    private final List<int[][]> links = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private final Map<String, Integer> nodeById = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    private HnswIndex(Path directory, int dimensions, int m, int efConstruction) {
+        this.directory = directory;
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    /**
+     * 디렉터리의 인덱스를 열거나 새로 생성 (그래프는 다시 만들지 않고 파일에서 읽음)
+     */
+    static HnswIndex open(Path directory, int dimensions, int m, int efConstruction) throws IOException {
+        Files.createDirectories(directory);
+        HnswIndex index = new HnswIndex(directory, dimensions, m, efConstruction);
+
+        Path graphFile = directory.resolve(GRAPH_FILE);
+        if (Files.exists(graphFile)) {
+            index.readGraph(graphFile);
+        }
+        index.deleteStaleVectorFiles();
+        index.openVectors(Math.max(INITIAL_CAPACITY, index.size));
+        // 매핑한 페이지를 미리 읽어 첫 검색의 페이지 폴트를 줄임
+        index.vectorBuffer.load();
+        return index;
+    }
+
+    /**
+     * 지정한 세대의 빈 인덱스 생성 (재구성용 - graph.bin 은 save() 전까지 이전 세대를 가리킴)
+     */
+    static HnswIndex create(Path directory, int generation, int dimensions, int m, int efConstruction) throws IOException {
+        Files.createDirectories(directory);
+        HnswIndex index = new HnswIndex(directory, dimensions, m, efConstruction);
+        index.generation = generation;
+        Files.deleteIfExists(index.vectorFile(generation));
+        index.openVectors(INITIAL_CAPACITY);
+        return index;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int liveCount() {
+        return nodeById.size();
+    }
+
+    int deletedCount() {
+        return size - nodeById.size();
+    }
+
+    boolean contains(String id) {
+        return nodeById.containsKey(id);
+    }
+
+    String idOf(int node) {
+        return ids.get(node);
+    }
+
+    /**
+     * 저장된 벡터 (정규화된 값), 없거나 삭제된 ID 는 null
+     */
+    float[] vectorOf(String id) {
+        Integer node = nodeById.get(id);
+        return node != null ? vector(node) : null;
+    }
+
+    /**
+     * 노드 번호로 저장된 벡터 조회 (재구성 시 살아 있는 노드 복사용)
+     */
+    float[] vectorAt(int node) {
+        return vector(node);
+    }
+
+    /**
+     * 삭제되지 않은 노드 번호 (추가 순서)
+     */
+    int[] liveNodes() {
+        int[] live = new int[nodeById.size()];
+        int count = 0;
+        for (int node = 0; node < size; node++) {
+            if (!deleted.get(node)) {
+                live[count++] = node;
+            }
+        }
+        return live;
+    }
+
+    long mappedBytes() {
+        return (long) capacity * dimensions * Float.BYTES;
+    }
+
+    /**
+     * 벡터 추가 (같은 ID 가 있으면 이전 노드는 삭제 표시)
+     */
+    int add(String id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                "Embedding dimension " + vector.length + " does not match index dimension " + dimensions);
+        }
+        delete(id);
+
+        int node = size;
+        ensureCapacity(node + 1);
+        float[] unit = normalize(vector);
+        vectors.put(node * dimensions, unit);
+
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        Arrays.fill(nodeLinks, NO_LINKS);
+        ids.add(id);
+        links.add(nodeLinks);
+        nodeById.put(id, node);
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(unit, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(unit, current, efConstruction, l);
+            int[] selected = candidates.stream()
+                .limit(m)
+                .mapToInt(Scored::node)
+                .toArray();
+            nodeLinks[l] = selected;
+            for (int neighbor : selected) {
+                link(neighbor, node, l);
+            }
+            current = candidates.get(0).node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * 삭제 표시 (그래프 연결은 유지)
+     */
+    boolean delete(String id) {
+        Integer node = nodeById.remove(id);
+        if (node == null) {
+            return false;
+        }
+        deleted.set(node);
+        return true;
+    }
+
+    /**
+     * 근사 검색 - 삭제/필터 제외 후 상위 k 개 (유사도 내림차순)
+     */
+    List<Scored> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+
+        float[] unit = normalize(query);
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(unit, current, l);
+        }
+
+        return searchLayer(unit, current, Math.max(ef, k), 0).stream()
+            .filter(scored -> !deleted.get(scored.node()) && accept.test(scored.node()))
+            .limit(k)
+            .toList();
+    }
+
+    /**
+     * 전체 스캔 검색 - 필터가 좁아 근사 검색으로 k 개를 못 채울 때 사용
+     */
+    List<Scored> exactSearch(float[] query, int k, IntPredicate accept) {
+        float[] unit = normalize(query);
+        PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        for (int node = 0; node < size; node++) {
+            if (deleted.get(node) || !accept.test(node)) {
+                continue;
+            }
+            float score = similarity(unit, node);
+            if (best.size() < k) {
+                best.add(new Scored(node, score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Scored(node, score));
+            }
+        }
+        List<Scored> results = new ArrayList<>(best);
+        results.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return results;
+    }
+
+    /**
+     * 벡터 파일 동기화 후 그래프 파일 교체
+     */
+    void save() throws IOException {
+        vectorBuffer.force();
+
+        Path tmp = directory.resolve(GRAPH_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(generation);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                out.writeUTF(ids.get(node));
+                out.writeBoolean(deleted.get(node));
+                int[][] nodeLinks = links.get(node);
+                out.writeInt(nodeLinks.length);
+                for (int[] levelLinks : nodeLinks) {
+                    out.writeInt(levelLinks.length);
+                    for (int neighbor : levelLinks) {
+                        out.writeInt(neighbor);
+                    }
+                }
+            }
+        }
+        Files.move(tmp, directory.resolve(GRAPH_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeVectors();
+    }
+
+    /**
+     * 닫고 벡터 파일 삭제 (재구성으로 교체된 이전 세대, 실패한 재구성)
+     */
+    void discard() throws IOException {
+        closeVectors();
+        Files.deleteIfExists(vectorFile(generation));
+    }
+
+    // ==================== 그래프 ====================
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : links.get(current)[level]) {
+                float score = similarity(query, neighbor);
+                if (score > best) {
+                    best = score;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 계층에서 ef 개 후보 탐색 (유사도 내림차순)
+     */
+    private List<Scored> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        Scored first = new Scored(start, similarity(query, start));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Scored candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score() < results.peek().score()) {
+                break;
+            }
+            for (int neighbor : links.get(candidate.node())[level]) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float score = similarity(query, neighbor);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Scored scored = new Scored(neighbor, score);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Scored> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return ordered;
+    }
+
+    /**
+     * 역방향 연결 추가 - 최대 이웃 수를 넘으면 가까운 이웃만 남김
+     */
+    private void link(int from, int to, int level) {
+        int[][] nodeLinks = links.get(from);
+        int[] current = nodeLinks[level];
+        int maxNeighbors = level == 0 ? 2 * m : m;
+
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = to;
+        if (extended.length <= maxNeighbors) {
+            nodeLinks[level] = extended;
+            return;
+        }
+
+        float[] base = vector(from);
+        nodeLinks[level] = Arrays.stream(extended)
+            .mapToObj(neighbor -> new Scored(neighbor, similarity(base, neighbor)))
+            .sorted(Comparator.comparingDouble(Scored::score).reversed())
+            .limit(maxNeighbors)
+            .mapToInt(Scored::node)
+            .toArray();
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1.0 - random.nextDouble()) * levelMultiplier;
+        return Math.min((int) level, MAX_LEVEL);
+    }
+
+    // ==================== 벡터 저장 ====================
+
+    private float similarity(float[] query, int node) {
+        int base = node * dimensions;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * vectors.get(base + i);
+        }
+        return sum;
+    }
+
+    private float[] vector(int node) {
+        float[] vector = new float[dimensions];
+        vectors.get(node * dimensions, vector);
+        return vector;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+        int next = capacity;
+        while (next < required) {
+            next *= 2;
+        }
+        vectorBuffer.force();
+        map(next);
+    }
+
+    private void openVectors(int initialCapacity) throws IOException {
+        vectorChannel = FileChannel.open(vectorFile(generation),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map(initialCapacity);
+    }
+
+    private void map(int newCapacity) {
+        long bytes = (long) newCapacity * dimensions * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Embedded vector index is full (" + size + " vectors)");
+        }
+        try {
+            vectorBuffer = vectorChannel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map vector file", e);
+        }
+        vectors = vectorBuffer.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        capacity = newCapacity;
+    }
+
+    private void closeVectors() throws IOException {
+        if (vectorChannel != null) {
+            vectorBuffer.force();
+            vectorChannel.close();
+            vectorChannel = null;
+        }
+    }
+
+    private Path vectorFile(int fileGeneration) {
+        return directory.resolve("vectors-" + fileGeneration + ".bin");
+    }
+
+    /**
+     * 현재 세대가 아닌 벡터 파일 삭제 (재구성 도중 중단되어 남은 파일)
+     */
+    private void deleteStaleVectorFiles() throws IOException {
+        Path current = vectorFile(generation);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "vectors-*.bin")) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    log.info("Deleting stale HNSW vector file {}", file);
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void readGraph(Path graphFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(graphFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported HNSW index format: " + graphFile);
+            }
+            int storedDimensions = in.readInt();
+            int storedM = in.readInt();
+            if (storedDimensions != dimensions || storedM != m) {
+                // 임베딩 모델/파라미터가 바뀐 인덱스는 재사용할 수 없다 (디렉터리 삭제 후 재인덱싱)
+                throw new IllegalStateException("HNSW index at " + directory + " was built with dimensions="
+                    + storedDimensions + ", m=" + storedM + " (configured " + dimensions + ", " + m + ")");
+            }
+            generation = in.readInt();
+            int count = in.readInt();
+            entryPoint = in.readInt();
+            maxLevel = in.readInt();
+
+            for (int node = 0; node < count; node++) {
+                String id = in.readUTF();
+                boolean isDeleted = in.readBoolean();
+                int[][] nodeLinks = new int[in.readInt()][];
+                for (int l = 0; l < nodeLinks.length; l++) {
+                    int[] levelLinks = new int[in.readInt()];
+                    for (int i = 0; i < levelLinks.length; i++) {
+                        levelLinks[i] = in.readInt();
+                    }
+                    nodeLinks[l] = levelLinks;
+                }
+                ids.add(id);
+                links.add(nodeLinks);
+                if (isDeleted) {
+                    deleted.set(node);
+                } else {
+                    nodeById.put(id, node);
+                }
+            }
+            size = count;
+        }
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        if (norm == 0) {
+            return vector.clone();
+        }
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = (float) (vector[i] / norm);
+        }
+        return unit;
+    }
+
+    record Scored(int node, float score) {}
+}
@@ -0,0 +1,132 @@
+package com.company.policyqna.warmup;
+
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.rag.RagPipelineService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기동 워밍업
+ * ApplicationRunner 는 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌기 전에 실행되므로
+ * 워밍업이 끝나야 /actuator/health/readiness 가 UP 이 된다.
+ * 1. Ollama 임베딩/채팅 모델 적재 (keep-alive 는 application.yml 에서 설정)
+ * 2. vector_store HNSW 인덱스와 청크 테이블을 shared buffers 로 적재 (pg_prewarm)
+ * 3. 합성 질문으로 전체 파이프라인 1회 실행 (커넥션 풀, JIT, 캐시)
+ *    - 답변 캐시를 거치지 않고, QnA 지표(rag.pipeline.stage, rag.llm.tokens 등)에도 기록하지 않음
+ *    - question-deadline-ms 가 지나면 대체 답변으로 끝냄 (readiness 지연 상한)
+ * 단계가 실패해도 기동은 계속한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    private final EmbeddingModel embeddingModel;
+    private final ChatClient chatClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final RagPipelineService ragPipelineService;
+    private final PipelineMetrics metrics;
+    private final MeterRegistry registry;
+
+    @Value("${rag.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rag.warmup.questions:}")
+    private List<String> questions;
+
+    @Value("${rag.warmup.question-deadline-ms:5000}")
+    private long questionDeadlineMs;
+
+    @Value("${rag.warmup.prewarm-relations:vector_store,spring_ai_vector_index,document_chunks}")
+    private List<String> prewarmRelations;
+
+    private final AtomicLong durationMillis = new AtomicLong();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TimeGauge.builder("rag.warmup.duration", durationMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .register(registry);
+
+        if (!enabled) {
+            log.info("Startup warmup disabled");
+            return;
+        }
+
+        long start = System.nanoTime();
+        log.info("Startup warmup started");
+
+        step("embedding-model", () -> embeddingModel.embed("워밍업"));
+        step("chat-model", () -> chatClient.prompt()
+            .user("안녕하세요")
+            .options(OllamaOptions.create().withNumPredict(1))
+            .call()
+            .content());
+        step("pg-prewarm", this::prewarmTables);
+        metrics.runWarmup(() -> {
+            for (String question : questions) {
+                if (!question.isBlank()) {
+                    step("question", () -> ragPipelineService.warmupQuestion(question, questionDeadlineMs));
+                }
+            }
+        });
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        durationMillis.set(elapsed);
+        log.info("Startup warmup finished in {} ms", elapsed);
+    }
+
+    /**
+     * pg_prewarm 으로 테이블/인덱스 페이지 적재
+     * 확장을 쓸 수 없으면 인덱스 스캔을 한 번 실행해 일부라도 적재한다.
+     */
+    private void prewarmTables() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_prewarm");
+        } catch (RuntimeException e) {
+            log.warn("pg_prewarm unavailable ({}), falling back to a probe query", e.getMessage());
+            jdbcTemplate.queryForList("""
+                SELECT id FROM vector_store
+                ORDER BY embedding <=> (SELECT embedding FROM vector_store LIMIT 1)
+                LIMIT 10
+                """);
+            return;
+        }
+
+        Map<String, Long> blocks = new LinkedHashMap<>();
+        for (String relation : prewarmRelations) {
+            try {
+                Long loaded = jdbcTemplate.queryForObject("SELECT pg_prewarm(?::regclass)", Long.class, relation);
+                blocks.put(relation, loaded);
+            } catch (RuntimeException e) {
+                log.warn("pg_prewarm failed for {}: {}", relation, e.getMessage());
+            }
+        }
+        log.info("pg_prewarm loaded blocks: {}", blocks);
+    }
+
+    private void step(String name, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            metrics.run(PipelineMetrics.WARMUP_STAGE, name, task);
+            log.info("Warmup step '{}' done in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.warn("Warmup step '{}' failed: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+-- pgvector 벡터 스토어 스키마 (rag.vector-store.type=pgvector 일 때만 실행)
+
+-- pgvector 확장 설치 (필요시)
+CREATE EXTENSION IF NOT EXISTS vector;
+
+-- 벡터 스토어 테이블 (Spring AI PgVectorStore 와 같은 정의 - 먼저 생성되어도 호환)
+CREATE EXTENSION IF NOT EXISTS hstore;
+CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+
+CREATE TABLE IF NOT EXISTS vector_store (
+    id UUID DEFAULT uuid_generate_v4() PRIMARY KEY,
+    content TEXT,
+    metadata JSON,
+    embedding VECTOR(768)
+);
+
+-- 부서/문서 유형 필터 - HNSW 스캔 결과가 topK 보다 모자라면 정확 검색에서 이 인덱스로 후보를 좁힌다
+CREATE INDEX IF NOT EXISTS idx_vector_store_department ON vector_store ((metadata->>'department'));
+CREATE INDEX IF NOT EXISTS idx_vector_store_document_type ON vector_store ((metadata->>'documentType'));
+
+-- 문서 단위 삭제 (재인덱싱/삭제 시)
+CREATE INDEX IF NOT EXISTS idx_vector_store_document ON vector_store ((metadata->>'documentId'));
+
+-- 계층 검색 2단계 - 선택한 조항 범위("문서ID|조항번호") 안의 청크만 읽는다
+CREATE INDEX IF NOT EXISTS idx_vector_store_article_scope
+    ON vector_store (((metadata->>'documentId') || '|' || coalesce(metadata->>'articleNumber', '')));
+
+-- Spring AI 필터 표현식 (metadata::jsonb @@ jsonpath) 용
+CREATE INDEX IF NOT EXISTS idx_vector_store_metadata ON vector_store USING GIN ((metadata::jsonb) jsonb_path_ops);
+
+-- 계층 검색용 문서/조항 요약 벡터 (rag.hierarchical.enabled=true)
+-- 요약 벡터 = 범위 안 청크 임베딩의 평균, vector_store 에서 집계해 채운다
+CREATE TABLE IF NOT EXISTS section_vectors (
+    id BIGSERIAL PRIMARY KEY,
+    document_id BIGINT NOT NULL REFERENCES policy_documents(id) ON DELETE CASCADE,
+    level VARCHAR(20) NOT NULL,          -- DOCUMENT | ARTICLE
+    scope VARCHAR(200) NOT NULL,         -- 문서ID|조항번호 (청크 검색 범위 키)
+    article_number VARCHAR(100),
+    section_title VARCHAR(500),
+    department VARCHAR(200),
+    document_type VARCHAR(50),
+    chunk_count INTEGER,
+    embedding VECTOR(768)
+);
+
+CREATE INDEX IF NOT EXISTS idx_section_vectors_document ON section_vectors(document_id);
+CREATE INDEX IF NOT EXISTS idx_section_vectors_level ON section_vectors(level);
@@ -1,7 +1,4 @@
--- PostgreSQL + pgvector 초기화 스크립트
-
--- pgvector 확장 설치 (필요시)
-CREATE EXTENSION IF NOT EXISTS vector;
+-- PostgreSQL 초기화 스크립트 (벡터 스토어 테이블은 schema-pgvector.sql)
 
 -- 문서 테이블
 CREATE TABLE IF NOT EXISTS policy_documents (
@@ -35,9 +32,13 @@ CREATE TABLE IF NOT EXISTS document_chunks (
     end_offset INTEGER,
     metadata JSONB,
     vector_id VARCHAR(100),
+    content_hash VARCHAR(64),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 기존 DB 호환 (content_hash 추가 이전에 생성된 테이블)
+ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
 CREATE INDEX IF NOT EXISTS idx_chunks_document ON document_chunks(document_id);
 CREATE INDEX IF NOT EXISTS idx_chunks_article ON document_chunks(article_number);
 
@@ -0,0 +1,69 @@
+package com.company.policyqna.document;
+
+import com.company.policyqna.domain.DocumentChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkIdentityTest {
+
+    private static final String BOILERPLATE = "이 규정에 정하지 않은 사항은 관계 법령에 따른다.";
+
+    @Test
+    void repeatedBoilerplateGetsOccurrenceNumberedKeys() {
+        List<DocumentChunk> chunks = chunks(BOILERPLATE, "제1조 목적", BOILERPLATE, BOILERPLATE);
+
+        List<String> keys = ChunkIdentity.assign(1L, chunks);
+
+        String hash = ChunkIdentity.contentHash(BOILERPLATE);
+        assertThat(keys).containsExactly(
+            hash + "#1", ChunkIdentity.contentHash("제1조 목적") + "#1", hash + "#2", hash + "#3");
+        assertThat(chunks).extracting(DocumentChunk::getVectorId).doesNotHaveDuplicates();
+        assertThat(chunks).extracting(DocumentChunk::getContentHash).containsOnly(hash, ChunkIdentity.contentHash("제1조 목적"));
+    }
+
+    @Test
+    void vectorIdsAreStablePerDocument() {
+        List<DocumentChunk> first = chunks(BOILERPLATE, "제2조 적용 범위");
+        List<DocumentChunk> second = chunks(BOILERPLATE, "제2조 적용 범위");
+        List<DocumentChunk> otherDocument = chunks(BOILERPLATE, "제2조 적용 범위");
+
+        ChunkIdentity.assign(1L, first);
+        ChunkIdentity.assign(1L, second);
+        ChunkIdentity.assign(2L, otherDocument);
+
+        assertThat(second).extracting(DocumentChunk::getVectorId)
+            .containsExactlyElementsOf(first.stream().map(DocumentChunk::getVectorId).toList());
+        assertThat(otherDocument).extracting(DocumentChunk::getVectorId)
+            .doesNotContainAnyElementsOf(first.stream().map(DocumentChunk::getVectorId).toList());
+    }
+
+    @Test
+    void insertedBoilerplateOnlyAddsTheNextOccurrence() {
+        List<String> before = ChunkIdentity.assign(1L, chunks(BOILERPLATE, "제3조 정의", BOILERPLATE));
+        List<String> after = ChunkIdentity.assign(1L, chunks("제3조의2 신설", BOILERPLATE, "제3조 정의", BOILERPLATE, BOILERPLATE));
+
+        assertThat(after).containsAll(before);
+        assertThat(after.stream().filter(key -> !before.contains(key)))
+            .containsExactlyInAnyOrder(
+                ChunkIdentity.contentHash("제3조의2 신설") + "#1",
+                ChunkIdentity.contentHash(BOILERPLATE) + "#3");
+    }
+
+    @Test
+    void keysOfLegacyChunksAreComputedFromContent() {
+        List<DocumentChunk> assigned = chunks(BOILERPLATE, BOILERPLATE);
+        List<String> keys = ChunkIdentity.assign(1L, assigned);
+
+        assertThat(ChunkIdentity.keys(chunks(BOILERPLATE, BOILERPLATE))).isEqualTo(keys);
+    }
+
+    static List<DocumentChunk> chunks(String... contents) {
+        return Stream.of(contents)
+            .map(content -> DocumentChunk.builder().content(content).build())
+            .toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.company.policyqna.document;
+
+import com.company.policyqna.domain.DocumentChunk;
+import com.company.policyqna.domain.PolicyDocument;
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.vector.BulkVectorIndexer;
+import com.company.policyqna.vector.CorpusVersion;
+import com.company.policyqna.vector.VectorStoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * 재인덱싱 증분 비교 - 직전 인덱싱 실패, 벡터 누락, 삭제 반영
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentServiceReindexTest {
+
+    private static final Long DOCUMENT_ID = 1L;
+    private static final String BOILERPLATE = "이 규정에 정하지 않은 사항은 관계 법령에 따른다.";
+
+    @Mock
+    private DocumentRepository documentRepository;
+    @Mock
+    private DocumentChunkRepository chunkRepository;
+    @Mock
+    private DocumentParser documentParser;
+    @Mock
+    private VectorStoreService vectorStoreService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Captor
+    private ArgumentCaptor<List<DocumentChunk>> indexed;
+
+    private final CorpusVersion corpusVersion = new CorpusVersion();
+    private final PolicyDocument document = PolicyDocument.builder()
+        .id(DOCUMENT_ID)
+        .title("취업규칙")
+        .filePath("policy.txt")
+        .build();
+
+    private DocumentService documentService;
+    private List<String> parsedContents;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        documentService = new DocumentService(documentRepository, chunkRepository, documentParser, vectorStoreService,
+            eventPublisher, new PipelineMetrics(new SimpleMeterRegistry()), corpusVersion,
+            new TransactionTemplate(transactionManager));
+
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.of(document));
+        when(documentParser.parseFile(any())).thenReturn(DocumentParser.ParsedDocument.builder().content("text").build());
+        when(documentParser.createChunks(document, "text")).thenAnswer(invocation -> chunks(parsedContents));
+        when(vectorStoreService.indexChunks(anyList())).thenReturn(new BulkVectorIndexer.IndexReport(0, 0, 0L, 0.0));
+    }
+
+    @Test
+    void unfinishedPreviousIndexReembedsEveryChunk() throws Exception {
+        document.setIndexed(false);
+        List<DocumentChunk> existing = existing(BOILERPLATE, "제1조 목적", BOILERPLATE);
+        parsedContents = List.of(BOILERPLATE, "제1조 목적", BOILERPLATE);
+
+        documentService.reindex(DOCUMENT_ID);
+
+        verify(vectorStoreService).deleteByDocumentId(DOCUMENT_ID);
+        verify(chunkRepository).deleteAll(existing);
+        verify(vectorStoreService, never()).existingVectorIds(anyCollection());
+        verify(vectorStoreService).indexChunks(indexed.capture());
+        assertThat(indexed.getValue()).hasSize(3)
+            .extracting(DocumentChunk::getVectorId)
+            .containsExactlyElementsOf(existing.stream().map(DocumentChunk::getVectorId).toList());
+        assertThat(document.isIndexed()).isTrue();
+    }
+
+    @Test
+    void keptChunksWithoutStoredVectorsAreReembedded() throws Exception {
+        document.setIndexed(true);
+        List<DocumentChunk> existing = existing(BOILERPLATE, "제1조 목적", BOILERPLATE);
+        parsedContents = List.of(BOILERPLATE, "제1조 목적", BOILERPLATE);
+        // 두 번째 상용 문구 청크의 벡터만 기록되지 않은 상태
+        when(vectorStoreService.existingVectorIds(anyCollection())).thenReturn(Set.of(
+            existing.get(0).getVectorId(), existing.get(1).getVectorId()));
+
+        documentService.reindex(DOCUMENT_ID);
+
+        verify(vectorStoreService, never()).deleteByDocumentId(any());
+        verify(vectorStoreService).indexChunks(indexed.capture());
+        assertThat(indexed.getValue()).containsExactly(existing.get(2));
+        verify(eventPublisher, times(1)).publishEvent(any(DocumentIndexChangedEvent.class));
+    }
+
+    @Test
+    void removedChunksArePublishedBeforeEmbedding() throws Exception {
+        document.setIndexed(true);
+        List<DocumentChunk> existing = existing(BOILERPLATE, "제1조 목적", "제2조 삭제될 조항");
+        parsedContents = List.of(BOILERPLATE, "제1조 목적", "제3조 새 조항");
+        when(vectorStoreService.existingVectorIds(anyCollection())).thenReturn(Set.of(
+            existing.get(0).getVectorId(), existing.get(1).getVectorId(), existing.get(2).getVectorId()));
+
+        documentService.reindex(DOCUMENT_ID);
+
+        verify(vectorStoreService).deleteByIds(List.of(existing.get(2).getVectorId()));
+        verify(vectorStoreService).indexChunks(indexed.capture());
+        assertThat(indexed.getValue()).extracting(DocumentChunk::getContent).containsExactly("제3조 새 조항");
+        // 비교 트랜잭션 커밋 + 인덱싱 완료 표시
+        verify(eventPublisher, times(2)).publishEvent(any(DocumentIndexChangedEvent.class));
+        assertThat(corpusVersion.current()).isEqualTo(2);
+    }
+
+    /**
+     * 직전 인덱싱에서 저장된 청크 행 (ChunkIdentity 로 벡터 ID 지정)
+     */
+    private List<DocumentChunk> existing(String... contents) {
+        List<DocumentChunk> chunks = chunks(List.of(contents));
+        ChunkIdentity.assign(DOCUMENT_ID, chunks);
+        when(chunkRepository.findWithDocumentByDocumentId(DOCUMENT_ID)).thenReturn(chunks);
+        return chunks;
+    }
+
+    private static List<DocumentChunk> chunks(List<String> contents) {
+        List<DocumentChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            chunks.add(DocumentChunk.builder().chunkIndex(i).content(contents.get(i)).build());
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,46 @@
+package com.company.policyqna.lexical;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class KoreanBigramTokenizerTest {
+
+    static Stream<Arguments> cases() {
+        return Stream.of(
+            // 한글 bigram - 조사가 붙어도 앞부분이 일치
+            arguments("연차휴가", List.of("연차", "차휴", "휴가")),
+            arguments("연차를", List.of("연차", "차를")),
+            arguments("연차, 병가.", List.of("연차", "병가")),
+            arguments("가", List.of("가")),
+            // 코드성 단어는 bigram 과 함께 단어 전체도 유지 (소문자)
+            arguments("BR-001", List.of("00", "01", "br-001")),
+            arguments("제15조", List.of("제1", "15", "5조", "제15조")),
+            arguments("3.2.1 항목", List.of("32", "21", "3.2.1", "항목")),
+            arguments("v2", List.of("v2")),
+            // 2글자 bigram 과 같은 단어는 한 번만
+            arguments("15", List.of("15")),
+            arguments("5일", List.of("5일")),
+            // 뒤에 단어 문자가 없는 연결 문자는 단어에 포함하지 않는다
+            arguments("제3조-", List.of("제3", "3조", "제3조")),
+            arguments("", List.of()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    void tokenize(String text, List<String> expected) {
+        assertThat(KoreanBigramTokenizer.tokenize(text)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void nullTextHasNoTokens() {
+        assertThat(KoreanBigramTokenizer.tokenize(null)).isEmpty();
+    }
+}
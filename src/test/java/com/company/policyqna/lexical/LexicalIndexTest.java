@@ -0,0 +1,99 @@
+package com.company.policyqna.lexical;
+
+import com.company.policyqna.document.DocumentChunkRepository;
+import com.company.policyqna.document.DocumentIndexChangedEvent;
+import com.company.policyqna.document.DocumentIndexChangedEvent.ChangeType;
+import com.company.policyqna.domain.DocumentChunk;
+import com.company.policyqna.domain.PolicyDocument;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * 문서 단위 갱신 - 추가, 교체, 삭제 후 전체 길이와 포스팅 정리
+ */
+@ExtendWith(MockitoExtension.class)
+class LexicalIndexTest {
+
+    private static final PolicyDocument VACATION = PolicyDocument.builder().id(1L).title("휴가 규정").build();
+    private static final PolicyDocument TRAVEL = PolicyDocument.builder().id(2L).title("출장 규정").build();
+
+    @Mock
+    private DocumentChunkRepository chunkRepository;
+
+    private LexicalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LexicalIndex(chunkRepository);
+        ReflectionTestUtils.setField(index, "k1", 1.2);
+        ReflectionTestUtils.setField(index, "b", 0.75);
+    }
+
+    @Test
+    void replacingAndDeletingDocumentKeepsStatisticsConsistent() {
+        // 연차/차휴/휴가/규정 4 + 출장/장비/정산 3
+        when(chunkRepository.findAllWithDocument()).thenReturn(List.of(
+            chunk(10L, VACATION, "연차휴가 규정"),
+            chunk(20L, TRAVEL, "출장비 정산")));
+        index.load();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(totalLength()).isEqualTo(7);
+        assertThat(chunkIds(index.search("연차", 5))).containsExactly("10");
+
+        // 병가/규정/00/01/br-001 5
+        when(chunkRepository.findWithDocumentByDocumentId(1L)).thenReturn(List.of(
+            chunk(11L, VACATION, "병가 규정 BR-001")));
+        index.onDocumentIndexChanged(new DocumentIndexChangedEvent(1L, ChangeType.REINDEXED));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(totalLength()).isEqualTo(8);
+        assertThat(postings()).doesNotContainKeys("연차", "차휴", "휴가");
+        assertThat(postings().get("규정")).containsOnlyKeys(11L);
+        assertThat(index.search("연차", 5)).isEmpty();
+        assertThat(chunkIds(index.search("br-001", 5))).containsExactly("11");
+
+        index.onDocumentIndexChanged(new DocumentIndexChangedEvent(1L, ChangeType.DELETED));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(totalLength()).isEqualTo(3);
+        assertThat(postings()).containsOnlyKeys("출장", "장비", "정산");
+        assertThat(chunkIds(index.search("출장비 규정", 5))).containsExactly("20");
+    }
+
+    @Test
+    void deletingUnknownDocumentIsIgnored() {
+        index.onDocumentIndexChanged(new DocumentIndexChangedEvent(9L, ChangeType.DELETED));
+
+        assertThat(index.size()).isZero();
+        assertThat(totalLength()).isZero();
+    }
+
+    private long totalLength() {
+        return (long) ReflectionTestUtils.getField(index, "totalLength");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<Long, Integer>> postings() {
+        return (Map<String, Map<Long, Integer>>) ReflectionTestUtils.getField(index, "postings");
+    }
+
+    private static List<String> chunkIds(List<SearchResult> results) {
+        return results.stream().map(SearchResult::getChunkId).toList();
+    }
+
+    private static DocumentChunk chunk(Long id, PolicyDocument document, String content) {
+        return DocumentChunk.builder().id(id).document(document).chunkIndex(0).content(content).build();
+    }
+}
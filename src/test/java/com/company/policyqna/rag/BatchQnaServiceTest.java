@@ -0,0 +1,82 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.metrics.PipelineMetrics;
+import com.company.policyqna.ontology.OntologyService;
+import com.company.policyqna.rag.BatchQnaService.BatchItem;
+import com.company.policyqna.rag.BatchQnaService.BatchQuestion;
+import com.company.policyqna.rag.RagPipelineService.QnaResponse;
+import com.company.policyqna.vector.SearchFilter;
+import com.company.policyqna.vector.VectorStoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchQnaServiceTest {
+
+    private static final SearchFilter HR = SearchFilter.of("인사팀", null);
+    private static final SearchFilter FINANCE = SearchFilter.of("재무팀", null);
+
+    @Mock
+    private RagPipelineService ragPipelineService;
+    @Mock
+    private OntologyService ontologyService;
+    @Mock
+    private VectorStoreService vectorStoreService;
+
+    private BatchQnaService batchQnaService;
+
+    @BeforeEach
+    void setUp() {
+        batchQnaService = new BatchQnaService(ragPipelineService, ontologyService, vectorStoreService,
+            new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(batchQnaService, "generationConcurrency", 2);
+        ReflectionTestUtils.setField(batchQnaService, "searchDeadlineMs", 1000L);
+
+        when(ragPipelineService.searchTermsFor(anyString(), isNull(), any()))
+            .thenAnswer(invocation -> Map.of(invocation.getArgument(0, String.class), 1.0));
+        when(ragPipelineService.getCandidatePoolSize()).thenReturn(10);
+    }
+
+    @Test
+    void failedGroupSearchBecomesErrorItemsAndOtherGroupsContinue() {
+        when(vectorStoreService.searchTerms(anyCollection(), anyInt(), anyLong(), eq(HR)))
+            .thenThrow(new IllegalStateException("Embedding request failed"));
+        when(vectorStoreService.searchTerms(anyCollection(), anyInt(), anyLong(), eq(FINANCE)))
+            .thenReturn(Map.of());
+        when(vectorStoreService.mergeWeighted(anyMap(), anyMap(), anyInt())).thenReturn(List.of());
+        when(ragPipelineService.lexicalSearch(anyString(), eq(FINANCE))).thenReturn(List.of());
+        when(ragPipelineService.fuse(anyList(), anyList())).thenReturn(List.of());
+        when(ragPipelineService.rerank(any(), anyList())).thenReturn(List.of());
+        QnaResponse answered = QnaResponse.builder().answer("답변").build();
+        when(ragPipelineService.complete(any(), eq(GenerationAdmission.Priority.BATCH))).thenReturn(answered);
+
+        List<BatchItem> items = batchQnaService.processBatch(List.of(
+                new BatchQuestion("연차 며칠?", HR),
+                new BatchQuestion("출장비 한도?", FINANCE),
+                new BatchQuestion("육아휴직 기간?", HR),
+                new BatchQuestion("법인카드 사용 기준?", FINANCE)))
+            .collectList()
+            .block();
+
+        assertThat(items).hasSize(4);
+        items = items.stream().sorted(Comparator.comparingInt(BatchItem::index)).toList();
+        assertThat(items).extracting(BatchItem::error)
+            .containsExactly("Embedding request failed", null, "Embedding request failed", null);
+        assertThat(items.get(1).response()).isSameAs(answered);
+        assertThat(items.get(3).response()).isSameAs(answered);
+        assertThat(items.get(0).response()).isNull();
+    }
+}
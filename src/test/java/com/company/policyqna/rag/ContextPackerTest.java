@@ -0,0 +1,112 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.rag.ContextPacker.PackedContext;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 컨텍스트 구성 - 오버랩 판정 경계, 인접 청크 병합, 토큰 예산
+ */
+class ContextPackerTest {
+
+    // ContextPacker.MIN_OVERLAP
+    private static final int MIN_OVERLAP = 20;
+    private static final String SHARED = "연차휴가는 입사일 기준으로 매년 1월 1일에 일괄 부여한다.";
+
+    private final ContextPacker packer = new ContextPacker();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(packer, "tokenBudget", 1500);
+        ReflectionTestUtils.setField(packer, "chunkOverlap", 200);
+    }
+
+    @Test
+    void overlapAtMinimumLengthIsDetected() {
+        String shared = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".substring(0, MIN_OVERLAP);
+
+        assertThat(ContextPacker.overlapLength("제5조 연차 " + shared, shared + " 미사용 수당", 400))
+            .isEqualTo(MIN_OVERLAP);
+    }
+
+    @Test
+    void overlapBelowMinimumIsIgnored() {
+        String shared = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".substring(0, MIN_OVERLAP - 1);
+
+        assertThat(ContextPacker.overlapLength("제5조 연차 " + shared, shared + " 미사용 수당", 400)).isZero();
+        // 한쪽이 최소 길이보다 짧으면 비교하지 않는다
+        assertThat(ContextPacker.overlapLength(shared, shared, 400)).isZero();
+    }
+
+    @Test
+    void overlapIsCappedByMaxOverlap() {
+        assertThat(ContextPacker.overlapLength("제5조 " + SHARED, SHARED + " 끝", SHARED.length()))
+            .isEqualTo(SHARED.length());
+        assertThat(ContextPacker.overlapLength("제5조 " + SHARED, SHARED + " 끝", MIN_OVERLAP - 1)).isZero();
+    }
+
+    @Test
+    void adjacentChunksMergeWithoutRepeatingOverlap() {
+        PackedContext packed = packer.pack(List.of(
+            result(1L, 1, SHARED + " 미사용 연차는 수당으로 지급한다.", 0.7),
+            result(1L, 0, "제5조 연차휴가 " + SHARED, 0.9)));
+
+        assertThat(packed.getBlockCount()).isEqualTo(1);
+        assertThat(occurrences(packed.getText(), SHARED)).isEqualTo(1);
+        assertThat(packed.getText()).contains("제5조 연차휴가 " + SHARED + " 미사용 연차는 수당으로 지급한다.");
+        assertThat(packed.getTokensSaved()).isPositive();
+    }
+
+    @Test
+    void nonAdjacentChunksAndOtherDocumentsAreNotMerged() {
+        PackedContext packed = packer.pack(List.of(
+            result(1L, 0, "제5조 연차휴가 " + SHARED, 0.9),
+            result(1L, 2, SHARED + " 제7조 병가", 0.8),
+            result(2L, 1, SHARED + " 출장 중 연차 사용", 0.6)));
+
+        assertThat(packed.getBlockCount()).isEqualTo(3);
+        assertThat(occurrences(packed.getText(), SHARED)).isEqualTo(3);
+        assertThat(packed.getText()).contains("[문서 1]", "[문서 2]", "[문서 3]");
+    }
+
+    @Test
+    void truncatedLastBlockStaysWithinTokenBudget() {
+        int budget = 300;
+        ReflectionTestUtils.setField(packer, "tokenBudget", budget);
+
+        PackedContext packed = packer.pack(List.of(
+            result(1L, 0, "가".repeat(100), 0.9),
+            result(2L, 0, "나".repeat(400), 0.8)));
+
+        assertThat(packed.getBlockCount()).isEqualTo(2);
+        assertThat(packed.getText()).contains("…").doesNotContain("나".repeat(400));
+        assertThat(packed.getTokenCount()).isLessThanOrEqualTo(budget);
+        assertThat(ContextPacker.estimateTokens(packed.getText())).isLessThanOrEqualTo(budget);
+        assertThat(packed.getOriginalTokenCount()).isGreaterThan(budget);
+    }
+
+    private static SearchResult result(Long documentId, int chunkIndex, String content, double score) {
+        return SearchResult.builder()
+            .chunkId(documentId + "-" + chunkIndex)
+            .documentId(documentId)
+            .documentTitle("취업규칙 " + documentId)
+            .chunkIndex(chunkIndex)
+            .content(content)
+            .score(score)
+            .build();
+    }
+
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int from = text.indexOf(part); from >= 0; from = text.indexOf(part, from + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.api.ApiExceptionHandler;
+import com.company.policyqna.rag.GenerationAdmission.Permit;
+import com.company.policyqna.rag.GenerationAdmission.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * 생성 승인 제어 - 대화형 우선, 대기열 초과/대기 시간 초과 거절과 HTTP 응답
+ */
+class GenerationAdmissionTest {
+
+    private static final long RETRY_AFTER_SECONDS = 7;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Thread> threads = new ArrayList<>();
+    private GenerationAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        admission = new GenerationAdmission();
+        ReflectionTestUtils.setField(admission, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(admission, "interactiveQueueCapacity", 1);
+        ReflectionTestUtils.setField(admission, "interactiveMaxWaitMs", 30_000L);
+        ReflectionTestUtils.setField(admission, "batchQueueCapacity", 4);
+        ReflectionTestUtils.setField(admission, "batchMaxWaitMs", 30_000L);
+        ReflectionTestUtils.setField(admission, "retryAfterSeconds", RETRY_AFTER_SECONDS);
+        admission.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void batchYieldsToInteractiveWaiter() throws Exception {
+        List<Priority> granted = new CopyOnWriteArrayList<>();
+        Permit running = admission.acquire(Priority.BATCH);
+
+        Thread batch = start(Priority.BATCH, granted);
+        awaitQueued(batch);
+        Thread interactive = start(Priority.INTERACTIVE, granted);
+        awaitQueued(interactive);
+        assertThat(queued("batch")).isEqualTo(1);
+        assertThat(queued("interactive")).isEqualTo(1);
+
+        running.close();
+        batch.join(TimeUnit.SECONDS.toMillis(5));
+        interactive.join(TimeUnit.SECONDS.toMillis(5));
+
+        // 먼저 기다린 일괄 요청보다 대화형 요청이 먼저 슬롯을 받는다
+        assertThat(granted).containsExactly(Priority.INTERACTIVE, Priority.BATCH);
+        assertThat(registry.get("rag.admission.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void fullQueueRejectsImmediatelyWithTooManyRequests() throws Exception {
+        Permit running = admission.acquire(Priority.INTERACTIVE);
+        Thread queuedCaller = start(Priority.INTERACTIVE, new CopyOnWriteArrayList<>());
+        awaitQueued(queuedCaller);
+
+        long started = System.nanoTime();
+        GenerationRejectedException rejected = catchThrowableOfType(
+            () -> admission.acquire(Priority.INTERACTIVE), GenerationRejectedException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1_000);
+        assertThat(rejected.getReason()).isEqualTo(GenerationRejectedException.Reason.QUEUE_FULL);
+        assertResponse(rejected, HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejectedCount("queue_full")).isEqualTo(1);
+        running.close();
+    }
+
+    @Test
+    void configuredWaitTimeoutRejectsWithServiceUnavailable() {
+        ReflectionTestUtils.setField(admission, "interactiveMaxWaitMs", 50L);
+        Permit running = admission.acquire(Priority.INTERACTIVE);
+
+        GenerationRejectedException rejected = catchThrowableOfType(
+            () -> admission.acquire(Priority.INTERACTIVE), GenerationRejectedException.class);
+
+        assertThat(rejected.getReason()).isEqualTo(GenerationRejectedException.Reason.WAIT_TIMEOUT);
+        assertResponse(rejected, HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejectedCount("wait_timeout")).isEqualTo(1);
+        assertThat(queued("interactive")).isZero();
+        running.close();
+    }
+
+    @Test
+    void callerDeadlineRejectsBeforeConfiguredWait() {
+        Permit running = admission.acquire(Priority.INTERACTIVE);
+
+        GenerationRejectedException rejected = catchThrowableOfType(
+            () -> admission.acquire(Priority.INTERACTIVE, 50), GenerationRejectedException.class);
+
+        assertThat(rejected.getReason()).isEqualTo(GenerationRejectedException.Reason.DEADLINE);
+        assertResponse(rejected, HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejectedCount("deadline")).isEqualTo(1);
+        assertThat(queued("interactive")).isZero();
+
+        // 거절된 대기자는 대기열에서 빠져 다음 요청이 바로 슬롯을 받는다
+        running.close();
+        admission.acquire(Priority.INTERACTIVE).close();
+    }
+
+    private Thread start(Priority priority, List<Priority> granted) {
+        Thread thread = new Thread(() -> {
+            try (Permit permit = admission.acquire(priority)) {
+                granted.add(priority);
+            }
+        }, "admission-test-" + priority);
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * 대기열에 들어가 슬롯을 기다리는 중인지 확인 (awaitNanos)
+     */
+    private static void awaitQueued(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertThat(System.nanoTime()).as("caller was not queued").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private double queued(String priority) {
+        return registry.get("rag.admission.queued").tag("priority", priority).gauge().value();
+    }
+
+    private double rejectedCount(String reason) {
+        return registry.get("rag.admission.rejected").tag("reason", reason).functionCounter().count();
+    }
+
+    private static void assertResponse(GenerationRejectedException rejected, HttpStatus status) {
+        ResponseEntity<Map<String, Object>> response = new ApiExceptionHandler().handleGenerationRejected(rejected);
+
+        assertThat(response.getStatusCode()).isEqualTo(status);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo(String.valueOf(RETRY_AFTER_SECONDS));
+        assertThat(response.getBody()).containsEntry("error", rejected.getReason().name());
+    }
+}
@@ -0,0 +1,93 @@
+package com.company.policyqna.rag;
+
+import com.company.policyqna.vector.VectorStoreService;
+import com.company.policyqna.vector.VectorStoreService.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * MMR 선택 - 상위 청크와 거의 같은 청크 감점, 임베딩 없는 후보는 관련도만으로 경쟁
+ */
+@ExtendWith(MockitoExtension.class)
+class MmrSelectorTest {
+
+    private static final float[] TOP = {1f, 0f, 0f};
+    private static final float[] NEAR_DUPLICATE = {0.99f, 0.1f, 0f};
+    private static final float[] OTHER = {0f, 1f, 0f};
+    private static final float[] UNRELATED = {0f, 0f, 1f};
+
+    @Mock
+    private VectorStoreService vectorStoreService;
+
+    private MmrSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        selector = new MmrSelector(vectorStoreService);
+        ReflectionTestUtils.setField(selector, "enabled", true);
+        ReflectionTestUtils.setField(selector, "lambda", 0.7);
+    }
+
+    @Test
+    void nearDuplicateOfTopChunkIsDemoted() {
+        when(vectorStoreService.embeddingsOf(Set.of("a", "b", "c", "d"))).thenReturn(Map.of(
+            "a", TOP, "b", NEAR_DUPLICATE, "c", OTHER, "d", UNRELATED));
+
+        List<SearchResult> selected = selector.select(List.of(
+            result("a", 1.0), result("b", 0.95), result("c", 0.8), result("d", 0.5)), 2);
+
+        assertThat(vectorIds(selected)).containsExactly("a", "c");
+    }
+
+    @Test
+    void lambdaOfOneKeepsRelevanceOrder() {
+        ReflectionTestUtils.setField(selector, "lambda", 1.0);
+
+        List<SearchResult> selected = selector.select(List.of(
+            result("a", 1.0), result("b", 0.95), result("c", 0.8), result("d", 0.5)), 2);
+
+        assertThat(vectorIds(selected)).containsExactly("a", "b");
+        verifyNoInteractions(vectorStoreService);
+    }
+
+    @Test
+    void candidatesWithoutEmbeddingCompeteOnRelevanceOnly() {
+        // x 는 저장된 임베딩이 없고 y 는 벡터 ID 자체가 없다
+        when(vectorStoreService.embeddingsOf(Set.of("a", "b", "x", "d"))).thenReturn(Map.of(
+            "a", TOP, "b", NEAR_DUPLICATE, "d", UNRELATED));
+
+        List<SearchResult> selected = selector.select(List.of(
+            result("a", 1.0), result("b", 0.95), result("x", 0.9), result("y", null, 0.85), result("d", 0.0)), 3);
+
+        assertThat(selected).extracting(SearchResult::getChunkId).containsExactly("a", "x", "y");
+    }
+
+    private static List<String> vectorIds(List<SearchResult> results) {
+        return results.stream().map(SearchResult::getVectorId).toList();
+    }
+
+    private static SearchResult result(String id, double score) {
+        return result(id, id, score);
+    }
+
+    private static SearchResult result(String chunkId, String vectorId, double score) {
+        return SearchResult.builder()
+            .chunkId(chunkId)
+            .vectorId(vectorId)
+            .content("본문 " + chunkId)
+            .score(score)
+            .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.company.policyqna.rag;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 동일 키 동시 요청 병합 - 공유, 실패 전파, 선행 요청 취소 시 재계산
+ */
+class SingleFlightTest {
+
+    private static final String KEY = "연차 며칠?";
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> task = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "15일";
+        };
+
+        Call leader = start(task);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Call> waiters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Call waiter = start(task);
+            awaitWaiting(waiter);
+            waiters.add(waiter);
+        }
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+        release.countDown();
+
+        assertThat(leader.result()).isEqualTo(new SingleFlight.Result<>("15일", false));
+        for (Call waiter : waiters) {
+            assertThat(waiter.result()).isEqualTo(new SingleFlight.Result<>("15일", true));
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void leaderFailurePropagatesToWaiters() throws Exception {
+        IllegalStateException failure = new IllegalStateException("LLM unavailable");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Call leader = start(() -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Call waiter = start(() -> "호출되면 안 됨");
+        awaitWaiting(waiter);
+        release.countDown();
+
+        assertThat(leader.failure()).isSameAs(failure);
+        assertThat(waiter.failure()).isSameAs(failure);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void interruptedLeaderLetsWaiterRecompute() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Call leader = start(() -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Generation interrupted");
+            }
+            return "취소된 답변";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Call waiter = start(() -> "재계산된 답변");
+        awaitWaiting(waiter);
+
+        leader.thread().interrupt();
+
+        assertThat(leader.failure()).isInstanceOf(IllegalStateException.class);
+        // 선행 요청 취소는 대기자 실패가 아니다 - 대기자가 새 선행 요청이 되어 직접 계산
+        assertThat(waiter.result()).isEqualTo(new SingleFlight.Result<>("재계산된 답변", false));
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void interruptedWaiterLeavesLeaderRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Call leader = start(() -> {
+            started.countDown();
+            await(release);
+            return "15일";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Call waiter = start(() -> "호출되면 안 됨");
+        awaitWaiting(waiter);
+
+        waiter.thread().interrupt();
+        assertThat(waiter.failure()).isInstanceOf(CancellationException.class);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.result()).isEqualTo(new SingleFlight.Result<>("15일", false));
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void keyIsRemovedSoLaterCallsRecompute() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute(KEY, () -> "답변 " + executions.incrementAndGet());
+        assertThatThrownBy(() -> singleFlight.execute(KEY, () -> {
+            throw new IllegalStateException("실패 " + executions.incrementAndGet());
+        })).hasMessage("실패 2");
+        SingleFlight.Result<String> third = singleFlight.execute(KEY, () -> "답변 " + executions.incrementAndGet());
+
+        assertThat(third).isEqualTo(new SingleFlight.Result<>("답변 3", false));
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    private Call start(Supplier<String> task) {
+        FutureTask<SingleFlight.Result<String>> future = new FutureTask<>(() -> singleFlight.execute(KEY, task));
+        Thread thread = new Thread(future, "single-flight-test-" + threads.size());
+        threads.add(thread);
+        thread.start();
+        return new Call(thread, future);
+    }
+
+    /**
+     * 대기자가 선행 요청의 Future 에서 대기 중인지 확인 (park 상태)
+     */
+    private static void awaitWaiting(Call call) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (call.thread().getState() != Thread.State.WAITING) {
+            assertThat(System.nanoTime()).as("waiter did not block").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Call(Thread thread, FutureTask<SingleFlight.Result<String>> future) {
+
+        SingleFlight.Result<String> result() throws Exception {
+            return future.get(5, TimeUnit.SECONDS);
+        }
+
+        Throwable failure() throws Exception {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                return e.getCause();
+            }
+            throw new AssertionError("Expected failure");
+        }
+    }
+}
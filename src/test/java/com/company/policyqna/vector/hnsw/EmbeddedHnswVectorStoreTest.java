@@ -0,0 +1,98 @@
+package com.company.policyqna.vector.hnsw;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Spring AI 필터 표현식 검색 (메타데이터는 문자열로 저장)
+ */
+class EmbeddedHnswVectorStoreTest {
+
+    private static final int DIMENSIONS = 4;
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedHnswVectorStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+        when(embeddingModel.embed(anyString())).thenReturn(new float[] {1f, 1f, 1f, 1f});
+
+        store = new EmbeddedHnswVectorStore(embeddingModel, new ObjectMapper());
+        ReflectionTestUtils.setField(store, "path", directory.toString());
+        ReflectionTestUtils.setField(store, "dimensions", DIMENSIONS);
+        ReflectionTestUtils.setField(store, "m", 8);
+        ReflectionTestUtils.setField(store, "efConstruction", 50);
+        ReflectionTestUtils.setField(store, "efSearch", 64);
+        ReflectionTestUtils.setField(store, "compactionRatio", 0.3);
+        ReflectionTestUtils.setField(store, "checkpointInterval", 5000);
+        ReflectionTestUtils.setField(store, "embeddingBatchSize", 64);
+        store.open();
+
+        List<Document> documents = List.of(
+            document("a", "인사팀", "2", "2023-03-01"),
+            document("b", "인사팀", "9", "2024-01-01"),
+            document("c", "인사팀", "10", "2024-07-15"),
+            document("d", "재무팀", "11", "2025-01-01"));
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            embeddings.add(new float[] {1f, 1f + i * 0.1f, 1f, 1f});
+        }
+        store.write(documents, embeddings);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void numericComparisonUsesNumberOrder() {
+        assertThat(ids("version >= 9")).containsExactlyInAnyOrder("b", "c", "d");
+        assertThat(ids("version > 9")).containsExactlyInAnyOrder("c", "d");
+        assertThat(ids("version < 10")).containsExactlyInAnyOrder("a", "b");
+        assertThat(ids("version <= 10 && department == '인사팀'")).containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    void nonNumericComparisonUsesStringOrder() {
+        assertThat(ids("effectiveDate >= '2024-01-01'")).containsExactlyInAnyOrder("b", "c", "d");
+        assertThat(ids("effectiveDate < '2024-01-01' || department == '재무팀'")).containsExactlyInAnyOrder("a", "d");
+    }
+
+    @Test
+    void missingMetadataDoesNotMatchComparison() {
+        assertThat(ids("revision > 0")).isEmpty();
+    }
+
+    private List<String> ids(String filter) {
+        return store.similaritySearch(SearchRequest.query("질문").withTopK(10).withFilterExpression(filter))
+            .stream()
+            .map(Document::getId)
+            .toList();
+    }
+
+    private static Document document(String id, String department, String version, String effectiveDate) {
+        return new Document(id, "본문 " + id,
+            Map.of("department", department, "version", version, "effectiveDate", effectiveDate));
+    }
+}
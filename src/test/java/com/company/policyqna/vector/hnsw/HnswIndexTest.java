@@ -0,0 +1,154 @@
+package com.company.policyqna.vector.hnsw;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+    private static final int M = 8;
+    private static final int EF_CONSTRUCTION = 50;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(42);
+    private final Map<String, float[]> vectors = new LinkedHashMap<>();
+
+    @Test
+    void saveAndReopenKeepsGraphAndTombstones() throws IOException {
+        HnswIndex index = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        addVectors(index, 200);
+        for (int i = 0; i < 50; i++) {
+            index.delete("id-" + i);
+        }
+        List<String> before = topIds(index, vectors.get("id-120"), 5);
+        float[] stored = index.vectorOf("id-120");
+        index.save();
+        index.close();
+
+        HnswIndex reopened = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        try {
+            assertThat(reopened.size()).isEqualTo(200);
+            assertThat(reopened.liveCount()).isEqualTo(150);
+            assertThat(reopened.deletedCount()).isEqualTo(50);
+            assertThat(reopened.contains("id-10")).isFalse();
+            assertThat(reopened.contains("id-120")).isTrue();
+            assertThat(reopened.vectorOf("id-120")).containsExactly(stored);
+            assertThat(topIds(reopened, vectors.get("id-120"), 5)).isEqualTo(before).startsWith("id-120");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void replacingAnIdTombstonesThePreviousNode() throws IOException {
+        HnswIndex index = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        try {
+            addVectors(index, 10);
+            float[] replacement = randomVector();
+            index.add("id-3", replacement);
+
+            assertThat(index.size()).isEqualTo(11);
+            assertThat(index.liveCount()).isEqualTo(10);
+            assertThat(index.deletedCount()).isEqualTo(1);
+            assertThat(topIds(index, replacement, 1)).containsExactly("id-3");
+            assertThat(index.liveNodes()).doesNotContain(3).contains(10);
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void compactionIntoNextGenerationDropsTombstones() throws IOException {
+        HnswIndex source = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        addVectors(source, 200);
+        for (int i = 0; i < 100; i += 2) {
+            source.delete("id-" + i);
+        }
+        source.save();
+
+        HnswIndex next = HnswIndex.create(directory, source.generation() + 1, DIMENSIONS, M, EF_CONSTRUCTION);
+        for (int node : source.liveNodes()) {
+            next.add(source.idOf(node), source.vectorAt(node));
+        }
+        next.save();
+        source.discard();
+        next.close();
+
+        assertThat(directory.resolve("vectors-0.bin")).doesNotExist();
+        HnswIndex compacted = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        try {
+            assertThat(compacted.generation()).isEqualTo(1);
+            assertThat(compacted.size()).isEqualTo(150);
+            assertThat(compacted.deletedCount()).isZero();
+            assertThat(compacted.contains("id-2")).isFalse();
+            assertThat(compacted.contains("id-3")).isTrue();
+            assertThat(topIds(compacted, vectors.get("id-151"), 1)).containsExactly("id-151");
+            assertThat(compacted.exactSearch(vectors.get("id-4"), 150, node -> true))
+                .extracting(scored -> compacted.idOf(scored.node()))
+                .doesNotContain("id-4");
+        } finally {
+            compacted.close();
+        }
+    }
+
+    @Test
+    void openDeletesVectorFilesLeftByAnInterruptedRebuild() throws IOException {
+        HnswIndex index = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        addVectors(index, 10);
+        index.save();
+        index.close();
+        Files.write(directory.resolve("vectors-1.bin"), new byte[64]);
+
+        HnswIndex reopened = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        try {
+            assertThat(reopened.generation()).isZero();
+            assertThat(reopened.liveCount()).isEqualTo(10);
+            assertThat(directory.resolve("vectors-1.bin")).doesNotExist();
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void openRejectsDifferentDimensions() throws IOException {
+        HnswIndex index = HnswIndex.open(directory, DIMENSIONS, M, EF_CONSTRUCTION);
+        addVectors(index, 5);
+        index.save();
+        index.close();
+
+        assertThatThrownBy(() -> HnswIndex.open(directory, DIMENSIONS * 2, M, EF_CONSTRUCTION))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void addVectors(HnswIndex index, int count) {
+        for (int i = 0; i < count; i++) {
+            float[] vector = randomVector();
+            vectors.put("id-" + i, vector);
+            index.add("id-" + i, vector);
+        }
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = random.nextFloat() - 0.5f;
+        }
+        return vector;
+    }
+
+    private static List<String> topIds(HnswIndex index, float[] query, int k) {
+        return index.search(query, k, 64, node -> true).stream()
+            .map(scored -> index.idOf(scored.node()))
+            .toList();
+    }
+}